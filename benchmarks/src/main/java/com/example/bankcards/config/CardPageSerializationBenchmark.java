@@ -0,0 +1,110 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.PageResponse;
+import com.example.bankcards.entity.Card;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A page of cards as the controllers return it, written by a Boot-style ObjectMapper with
+ * and without Blackbird, against the {@link PagedModel} the controllers returned before.
+ * {@link PageWireSize} reports the bytes each variant puts on the wire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CardPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"reflection", "blackbird"})
+    private String accessors;
+
+    private ObjectMapper objectMapper;
+    private Page<CardDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = objectMapper("blackbird".equals(accessors));
+        page = cardPage(pageSize);
+    }
+
+    @Benchmark
+    public byte[] serializePagedModel() throws IOException {
+        return objectMapper.writeValueAsBytes(new PagedModel<>(page));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return objectMapper.writeValueAsBytes(PageResponse.of(page));
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipPage() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(PageResponse.of(page)));
+    }
+
+    // Configured like Spring Boot's ObjectMapper
+    static ObjectMapper objectMapper(boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    static Page<CardDto> cardPage(int pageSize) {
+        List<CardDto> cards = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> CardDto.builder()
+                        .id(id)
+                        .maskedNumber("**** **** **** " + String.format("%04d", id))
+                        .ownerUsername("alice")
+                        .expirationDate(LocalDate.of(2030, 1, 31))
+                        .status(Card.CardStatus.ACTIVE)
+                        .balance(new BigDecimal("1000.00"))
+                        .build())
+                .toList();
+        return new PageImpl<>(cards, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    // As Tomcat compresses responses: gzip at the default level
+    static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.PageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+
+import java.io.IOException;
+
+/**
+ * Prints the bytes on the wire for a page of cards, as serialized by
+ * {@link CardPageSerializationBenchmark}, plain and gzipped:
+ *
+ * <pre>java -cp benchmarks/target/benchmarks.jar com.example.bankcards.config.PageWireSize</pre>
+ */
+public class PageWireSize {
+
+    public static void main(String[] args) throws IOException {
+        ObjectMapper objectMapper = CardPageSerializationBenchmark.objectMapper(false);
+        System.out.printf("%-12s %8s %12s %12s%n", "envelope", "pageSize", "bytes", "gzipBytes");
+        for (int pageSize : new int[]{20, 100}) {
+            Page<CardDto> page = CardPageSerializationBenchmark.cardPage(pageSize);
+            print("PageImpl", pageSize, objectMapper.writeValueAsBytes(page));
+            print("PagedModel", pageSize, objectMapper.writeValueAsBytes(new PagedModel<>(page)));
+            print("PageResponse", pageSize, objectMapper.writeValueAsBytes(PageResponse.of(page)));
+        }
+    }
+
+    private static void print(String envelope, int pageSize, byte[] body) throws IOException {
+        System.out.printf("%-12s %8d %12d %12d%n", envelope, pageSize, body.length, CardPageSerializationBenchmark.gzip(body).length);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lives in the service package to reach the package-private helpers of {@link CardService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CardServiceBenchmark {
+
+    private Card card;
+    private String cardNumber;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder()
+                .id(1L)
+                .username("alice")
+                .build();
+
+        cardNumber = "4276123456781234";
+        card = Card.builder()
+                .id(42L)
+                .cardNumber("encrypted")
+                .maskedNumber(CardService.maskCardNumber(cardNumber))
+                .lastFour("1234")
+                .owner(owner)
+                .expirationDate(LocalDate.of(2030, 1, 31))
+                .status(Card.CardStatus.ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .build();
+    }
+
+    @Benchmark
+    public CardDto mapToDto() {
+        return CardService.mapToDto(card);
+    }
+
+    @Benchmark
+    public String generateCardNumber() {
+        return CardService.generateCardNumber();
+    }
+
+    @Benchmark
+    public String maskCardNumber() {
+        return CardService.maskCardNumber(cardNumber);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bankcards.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CardNumberEncryptorBenchmark {
+
+    private CardNumberEncryptor encryptor;
+    private String cardNumber;
+    private String encryptedCardNumber;
+
+    @Setup
+    public void setUp() {
+        encryptor = new CardNumberEncryptor(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(encryptor, "encryptionKey", "EncryptionKey123");
+        cardNumber = "4276123456781234";
+        encryptedCardNumber = encryptor.encrypt(cardNumber);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptor.encrypt(cardNumber);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptor.decrypt(encryptedCardNumber);
+    }
+}
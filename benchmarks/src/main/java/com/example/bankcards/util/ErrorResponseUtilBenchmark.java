@@ -0,0 +1,82 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.ErrorResponse;
+import com.example.bankcards.exception.ExceptionHandlerFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.jsonwebtoken.MalformedJwtException;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error bodies, and the 401 answered for every request with a bad token: the templated
+ * response against serializing the whole body, and the full trip through the filter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ErrorResponseUtilBenchmark {
+
+    private static final FilterChain INVALID_TOKEN = (request, response) -> {
+        throw new MalformedJwtException("Malformed token");
+    };
+
+    private ErrorResponseUtil errorResponseUtil;
+    private ErrorResponseTemplate invalidToken;
+    private ExceptionHandlerFilter exceptionHandlerFilter;
+
+    @Setup
+    public void setUp() {
+        // Configured like Spring Boot's ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        errorResponseUtil = new ErrorResponseUtil(objectMapper);
+        invalidToken = errorResponseUtil.createTemplate(HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+        exceptionHandlerFilter = new ExceptionHandlerFilter(errorResponseUtil);
+    }
+
+    @Benchmark
+    public ErrorResponse createErrorResponse() {
+        return errorResponseUtil.createErrorResponse(HttpStatus.BAD_REQUEST, "Insufficient funds in the source card");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unauthorizedSerialized() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        errorResponseUtil.setErrorResponse(response, HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unauthorizedTemplated() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        invalidToken.write(response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse invalidTokenThroughFilter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exceptionHandlerFilter.doFilterInternal(new MockHttpServletRequest("GET", "/cards/my"), response, INVALID_TOKEN);
+        return response;
+    }
+}
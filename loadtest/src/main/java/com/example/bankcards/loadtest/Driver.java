@@ -0,0 +1,198 @@
+package com.example.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load driver: requests start at a fixed rate whether or not earlier ones
+ * have finished, and latency is measured from the intended start. A closed loop would
+ * slow down with the server and hide exactly the queueing the p99 and p999 should show.
+ */
+class Driver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final SeedManifest manifest;
+    private final Operation.Mix mix;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private Session[] sessions;
+    private Map<Operation, OperationStats> stats;
+
+    Driver(String baseUrl, SeedManifest manifest, Operation.Mix mix, int maxInFlight) {
+        if (mix.contains(Operation.TRANSFER) && manifest.cardsPerUser() < 2) {
+            throw new IllegalArgumentException("Transfers need at least two cards per user");
+        }
+        this.baseUrl = baseUrl;
+        this.manifest = manifest;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Log in the users whose tokens the workload uses. Users are spread over the whole seeded range.
+     */
+    void logIn(int sessionCount) throws InterruptedException {
+        sessions = new Session[sessionCount];
+        Thread[] threads = new Thread[sessionCount];
+        // BCrypt makes logins expensive; don't let the setup itself overload the server
+        Semaphore permits = new Semaphore(32);
+        for (int i = 0; i < sessionCount; i++) {
+            int index = i;
+            int user = (int) ((long) i * manifest.users() / sessionCount);
+            threads[i] = Thread.ofVirtual().start(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    sessions[index] = new Session(user, login(user));
+                } catch (Exception e) {
+                    throw new IllegalStateException("Login of " + manifest.username(user) + " failed", e);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (Session session : sessions) {
+            if (session == null) {
+                throw new IllegalStateException("Not all sessions could log in");
+            }
+        }
+    }
+
+    /**
+     * Issue requests at {@code ratePerSecond} for {@code duration} and return what was measured.
+     */
+    Map<Operation, OperationStats> run(int ratePerSecond, Duration duration) throws InterruptedException {
+        stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        long intervalNanos = 1_000_000_000L / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = mix.next();
+            Session session = sessions[ThreadLocalRandom.current().nextInt(sessions.length)];
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                stats.get(operation).recordError(System.nanoTime() - intended, "client_overloaded");
+                continue;
+            }
+            Thread.ofVirtual().start(() -> {
+                try {
+                    execute(operation, session, intended);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        // Let the requests still in flight finish so they are counted
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        return stats;
+    }
+
+    private void execute(Operation operation, Session session, long intended) {
+        OperationStats operationStats = stats.get(operation);
+        try {
+            HttpResponse<Void> response = httpClient.send(request(operation, session), HttpResponse.BodyHandlers.discarding());
+            long latency = System.nanoTime() - intended;
+            if (response.statusCode() / 100 == 2) {
+                operationStats.recordSuccess(latency);
+            } else {
+                operationStats.recordError(latency, "http_" + response.statusCode());
+            }
+        } catch (HttpTimeoutException e) {
+            operationStats.recordError(System.nanoTime() - intended, "timeout");
+        } catch (IOException e) {
+            operationStats.recordError(System.nanoTime() - intended, "io_error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest request(Operation operation, Session session) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LOGIN -> loginRequest(session.user());
+            case CARDS_MY -> authorized(session, "/cards/my?page=0&size=20").GET().build();
+            case GET_CARD -> authorized(session, "/cards/" + manifest.cardId(session.user(), random.nextInt(manifest.cardsPerUser())))
+                    .GET()
+                    .build();
+            case TRANSFER -> {
+                // Between two of the user's own cards, in either direction so that balances never run out
+                int source = random.nextInt(manifest.cardsPerUser());
+                int destination = (source + 1 + random.nextInt(manifest.cardsPerUser() - 1)) % manifest.cardsPerUser();
+                String body = "{\"sourceCardId\":" + manifest.cardId(session.user(), source)
+                        + ",\"destinationCardId\":" + manifest.cardId(session.user(), destination)
+                        + ",\"amount\":0.01}";
+                yield authorized(session, "/cards/transfer")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+        };
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + session.token());
+    }
+
+    private HttpRequest loginRequest(int user) {
+        String body = "{\"username\":\"" + manifest.username(user) + "\",\"password\":\"" + manifest.password() + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String login(int user) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(loginRequest(user), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Login returned " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("token").asText();
+    }
+
+    private record Session(int user, String token) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry point of the load test.
+ *
+ * <pre>
+ * java -jar loadtest.jar seed --users 1000000 --cards-per-user 2 [--reset]
+ * java -jar loadtest.jar run --rate 500 --duration 5m [--mix login=5,cards_my=50,get_card=30,transfer=15]
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: loadtest seed|run [--option value ...]");
+            System.exit(2);
+        }
+
+        Options options = new Options(args, 1);
+        Path manifestFile = Path.of(options.get("manifest", "target/loadtest/seed.json"));
+        switch (args[0]) {
+            case "seed" -> seed(options, manifestFile);
+            case "run" -> run(options, manifestFile);
+            default -> {
+                System.err.println("Unknown command: " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+
+    private static void seed(Options options, Path manifestFile) throws Exception {
+        Seeder seeder = new Seeder(
+                options.get("jdbc-url", "jdbc:postgresql://localhost:5432/postgres"),
+                options.get("db-user", "postgres"),
+                options.get("db-password", "postgres"),
+                // Must match app.security.encryption-key of the application under test
+                options.get("encryption-key", "EncryptionKey123"));
+        SeedManifest manifest = seeder.seed(
+                options.getInt("users", 1_000_000),
+                options.getInt("cards-per-user", 2),
+                options.get("username-prefix", "load-"),
+                options.get("password", "password"),
+                options.getFlag("reset"));
+
+        Files.createDirectories(manifestFile.toAbsolutePath().getParent());
+        OBJECT_MAPPER.writeValue(manifestFile.toFile(), manifest);
+        System.out.println("Seed manifest written to " + manifestFile);
+    }
+
+    private static void run(Options options, Path manifestFile) throws Exception {
+        SeedManifest manifest = OBJECT_MAPPER.readValue(manifestFile.toFile(), SeedManifest.class);
+        Operation.Mix mix = new Operation.Mix(options.get("mix", "login=5,cards_my=50,get_card=30,transfer=15"));
+        int rate = options.getInt("rate", 500);
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(30));
+        Duration duration = options.getDuration("duration", Duration.ofMinutes(5));
+        Path reportFile = Path.of(options.get("report", "target/loadtest/report.json"));
+
+        Driver driver = new Driver(options.get("base-url", "http://localhost:8080/api"), manifest, mix,
+                options.getInt("max-in-flight", 10_000));
+        int sessions = Math.min(options.getInt("sessions", 1000), manifest.users());
+        System.out.printf("Logging in %d users%n", sessions);
+        driver.logIn(sessions);
+
+        if (!warmup.isZero()) {
+            System.out.printf("Warming up for %d s at %d requests/s%n", warmup.toSeconds(), rate);
+            driver.run(rate, warmup);
+        }
+        System.out.printf("Measuring for %d s at %d requests/s%n", duration.toSeconds(), rate);
+        Map<Operation, OperationStats> stats = driver.run(rate, duration);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate", rate);
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("mix", options.get("mix", "login=5,cards_my=50,get_card=30,transfer=15"));
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> operations.put(operation.label(), operationStats.summary(duration.toMillis() / 1000.0)));
+        report.put("operations", operations);
+
+        printReport(operations);
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        OBJECT_MAPPER.writeValue(reportFile.toFile(), report);
+        System.out.println("Report written to " + reportFile);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printReport(Map<String, Object> operations) {
+        System.out.printf("%-10s %10s %10s %8s %10s %10s %10s %10s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        operations.forEach((operation, value) -> {
+            Map<String, Object> summary = (Map<String, Object>) value;
+            System.out.printf("%-10s %10d %10.1f %7.2f%% %10.2f %10.2f %10.2f %10.2f%n",
+                    operation,
+                    (Long) summary.get("requests"),
+                    (Double) summary.get("throughputPerSecond"),
+                    (Double) summary.get("errorRate") * 100,
+                    (Double) summary.get("p50Ms"),
+                    (Double) summary.get("p99Ms"),
+                    (Double) summary.get("p999Ms"),
+                    (Double) summary.get("maxMs"));
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.bankcards.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+enum Operation {
+    LOGIN,
+    CARDS_MY,
+    GET_CARD,
+    TRANSFER;
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Weighted choice between operations, parsed from e.g. {@code login=5,cards_my=50,get_card=30,transfer=15}.
+     */
+    static class Mix {
+
+        private final Operation[] operations;
+        private final int[] cumulativeWeights;
+        private final int totalWeight;
+
+        Mix(String spec) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split("=");
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+            }
+            weights.values().removeIf(weight -> weight <= 0);
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("The operation mix has no positive weights: " + spec);
+            }
+
+            operations = weights.keySet().toArray(Operation[]::new);
+            cumulativeWeights = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += weights.get(operations[i]);
+                cumulativeWeights[i] = total;
+            }
+            totalWeight = total;
+        }
+
+        Operation next() {
+            int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (int i = 0; i < operations.length; i++) {
+                if (pick < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            throw new IllegalStateException("Unreachable");
+        }
+
+        boolean contains(Operation operation) {
+            for (Operation candidate : operations) {
+                if (candidate == operation) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures of one operation. Latencies are recorded in microseconds.
+ */
+class OperationStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+
+    void recordSuccess(long latencyNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    }
+
+    /**
+     * Failed requests count towards the latency distribution too; a timeout is as slow for the client as a success.
+     */
+    void recordError(long latencyNanos, String cause) {
+        recordSuccess(latencyNanos);
+        errors.increment();
+        errorsByCause.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    Map<String, Object> summary(double seconds) {
+        long count = latencies.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("throughputPerSecond", round(count / seconds));
+        summary.put("errors", errors.sum());
+        summary.put("errorRate", count == 0 ? 0.0 : round((double) errors.sum() / count));
+        summary.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+        summary.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(latencies.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(latencies.getMaxValue()));
+        Map<String, Long> causes = new LinkedHashMap<>();
+        errorsByCause.forEach((cause, counter) -> causes.put(cause, counter.sum()));
+        summary.put("errorsByCause", causes);
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.loadtest;
+
+/**
+ * What the seeder generated, so that the driver can pick existing users and their cards.
+ * User {@code n} (0-based) has id {@code firstUserId + n} and owns the cards
+ * {@code firstCardId + n * cardsPerUser} up to, excluding, the next user's first card.
+ */
+record SeedManifest(String usernamePrefix,
+                    String password,
+                    long firstUserId,
+                    int users,
+                    long firstCardId,
+                    int cardsPerUser) {
+
+    String username(int user) {
+        return usernamePrefix + user;
+    }
+
+    long cardId(int user, int card) {
+        return firstCardId + (long) user * cardsPerUser + card;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.bankcards.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fills the database with users and cards through {@code COPY ... FROM STDIN}, which
+ * loads millions of rows in a fraction of the time row-by-row inserts would take.
+ * The schema must already exist, i.e. the application has started once.
+ */
+class Seeder {
+
+    private static final int FLUSH_BYTES = 1 << 20;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final String encryptionKey;
+
+    Seeder(String jdbcUrl, String username, String password, String encryptionKey) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.encryptionKey = encryptionKey;
+    }
+
+    SeedManifest seed(int users, int cardsPerUser, String usernamePrefix, String userPassword, boolean reset) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET synchronous_commit = off");
+                if (reset) {
+                    System.out.println("Removing previously seeded users and all cards");
+                    statement.execute("TRUNCATE cards");
+                    statement.execute("UPDATE users SET card_count = 0 WHERE card_count <> 0");
+                    statement.execute("DELETE FROM user_roles WHERE user_id IN (SELECT id FROM users WHERE username LIKE '" + usernamePrefix + "%')");
+                    statement.execute("DELETE FROM users WHERE username LIKE '" + usernamePrefix + "%'");
+                }
+            }
+
+            long firstUserId = queryLong(connection, "SELECT COALESCE(MAX(id), 0) + 1 FROM users");
+            long firstCardId = queryLong(connection, "SELECT COALESCE(MAX(id), 0) + 1 FROM cards");
+            long userRoleId = queryLong(connection, "SELECT id FROM roles WHERE name = 'USER'");
+            SeedManifest manifest = new SeedManifest(usernamePrefix, userPassword, firstUserId, users, firstCardId, cardsPerUser);
+
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            long started = System.nanoTime();
+            copyUsers(copyManager, manifest);
+            copyUserRoles(copyManager, manifest, userRoleId);
+            copyCards(copyManager, manifest);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users))");
+                statement.execute("SELECT setval(pg_get_serial_sequence('cards', 'id'), (SELECT MAX(id) FROM cards))");
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE user_roles");
+                statement.execute("ANALYZE cards");
+            }
+            System.out.printf("Seeded %d users and %d cards in %d s%n",
+                    users, (long) users * cardsPerUser, (System.nanoTime() - started) / 1_000_000_000L);
+            return manifest;
+        }
+    }
+
+    private void copyUsers(CopyManager copyManager, SeedManifest manifest) throws Exception {
+        // One BCrypt hash for everybody; hashing millions of passwords would take hours
+        String passwordHash = new BCryptPasswordEncoder(12).encode(manifest.password());
+        copy(copyManager, "COPY users (id, username, password, version, card_count) FROM STDIN (FORMAT csv)", manifest.users(), (user, row) -> row
+                .append(manifest.firstUserId() + user).append(',')
+                .append(manifest.username(user)).append(',')
+                .append(passwordHash).append(",0,")
+                .append(manifest.cardsPerUser()).append('\n'));
+    }
+
+    private void copyUserRoles(CopyManager copyManager, SeedManifest manifest, long userRoleId) throws Exception {
+        copy(copyManager, "COPY user_roles (user_id, role_id) FROM STDIN (FORMAT csv)", manifest.users(), (user, row) -> row
+                .append(manifest.firstUserId() + user).append(',')
+                .append(userRoleId).append('\n'));
+    }
+
+    private void copyCards(CopyManager copyManager, SeedManifest manifest) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8), "AES"));
+        String now = LocalDateTime.now().format(TIMESTAMP);
+        String expirationDate = LocalDate.now().plusYears(3).toString();
+        char[] digits = new char[16];
+
+        copy(copyManager, """
+                COPY cards (id, card_number, masked_number, last_four, user_id, expiration_date, status, balance, created_at, updated_at)
+                FROM STDIN (FORMAT csv)""", manifest.users(), (user, row) -> {
+            for (int card = 0; card < manifest.cardsPerUser(); card++) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < digits.length; i++) {
+                    digits[i] = (char) ('0' + random.nextInt(10));
+                }
+                String number = new String(digits);
+                String lastFour = number.substring(12);
+                row.append(manifest.cardId(user, card)).append(',')
+                        .append(Base64.getEncoder().encodeToString(cipher.doFinal(number.getBytes(StandardCharsets.UTF_8)))).append(',')
+                        .append("**** **** **** ").append(lastFour).append(',')
+                        .append(lastFour).append(',')
+                        .append(manifest.firstUserId() + user).append(',')
+                        .append(expirationDate).append(",ACTIVE,100000.00,")
+                        .append(now).append(',')
+                        .append(now).append('\n');
+            }
+        });
+    }
+
+    private static void copy(CopyManager copyManager, String sql, int users, RowWriter rowWriter) throws Exception {
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+            for (int user = 0; user < users; user++) {
+                rowWriter.write(user, buffer);
+                if (buffer.length() >= FLUSH_BYTES) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("No result for " + sql);
+            }
+            return resultSet.getLong(1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(int user, StringBuilder row) throws Exception;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.util.JwtTokenUtil;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+@SpringBootApplication
+@Import(JwtTokenUtil.class)
+public class ReactiveBankCardsApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveBankCardsApplication.class, args);
+    }
+}
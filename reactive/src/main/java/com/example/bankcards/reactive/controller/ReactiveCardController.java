@@ -0,0 +1,35 @@
+package com.example.bankcards.reactive.controller;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.PageResponse;
+import com.example.bankcards.reactive.security.AuthenticatedUser;
+import com.example.bankcards.reactive.service.ReactiveCardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read endpoints of the servlet CardController, with the same paths and response bodies.
+ */
+@RestController
+@RequestMapping("/cards")
+@RequiredArgsConstructor
+public class ReactiveCardController {
+
+    private final ReactiveCardService cardService;
+
+    @GetMapping("/{id}")
+    public Mono<CardDto> getCard(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        return cardService.getCard(id, user);
+    }
+
+    @GetMapping("/my")
+    public Mono<PageResponse<CardDto>> getUserCards(@AuthenticationPrincipal AuthenticatedUser user, Pageable pageable) {
+        return cardService.getUserCards(user, pageable);
+    }
+}
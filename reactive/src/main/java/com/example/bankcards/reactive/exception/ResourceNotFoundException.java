@@ -0,0 +1,11 @@
+package com.example.bankcards.reactive.exception;
+
+/**
+ * Something a response depends on no longer exists, e.g. the owner of a card; answered with 404.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
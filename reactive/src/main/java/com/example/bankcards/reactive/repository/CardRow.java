@@ -0,0 +1,22 @@
+package com.example.bankcards.reactive.repository;
+
+import com.example.bankcards.entity.Card;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The columns of a card that the read API exposes; the encrypted number is never selected.
+ */
+@Table("cards")
+public record CardRow(
+        @Id Long id,
+        String maskedNumber,
+        @Column("user_id") Long ownerId,
+        LocalDate expirationDate,
+        Card.CardStatus status,
+        BigDecimal balance) {
+}
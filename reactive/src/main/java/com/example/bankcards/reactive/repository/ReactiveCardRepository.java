@@ -0,0 +1,15 @@
+package com.example.bankcards.reactive.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveCardRepository extends R2dbcRepository<CardRow, Long> {
+
+    Flux<CardRow> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    Mono<Long> countByOwnerId(Long ownerId);
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.reactive.security;
+
+import java.util.List;
+
+/**
+ * Principal of an authenticated request, resolved once from the token's subject.
+ */
+public record AuthenticatedUser(Long id, String username, List<String> roles) {
+}
@@ -0,0 +1,54 @@
+package com.example.bankcards.reactive.security;
+
+import com.example.bankcards.reactive.repository.ReactiveUserRepository;
+import com.example.bankcards.reactive.repository.UserRow;
+import com.example.bankcards.util.JwtTokenUtil;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Verifies the token with the same {@link JwtTokenUtil} as the servlet API
+ * and loads the user's id and roles without blocking.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final ReactiveUserRepository userRepository;
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String token = (String) authentication.getCredentials();
+        String username;
+        try {
+            // Checks the signature and the expiration date
+            username = jwtTokenUtil.getUsernameFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.error(new BadCredentialsException("Invalid JWT token", e));
+        }
+
+        return userRepository.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("User not found: " + username)))
+                .flatMap(user -> userRepository.findRoleNamesByUserId(user.id())
+                        .collectList()
+                        .map(roles -> toAuthentication(user, roles, token)));
+    }
+
+    private Authentication toAuthentication(UserRow user, List<String> roles, String token) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.id(), user.username(), roles);
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return UsernamePasswordAuthenticationToken.authenticated(principal, token, authorities);
+    }
+}
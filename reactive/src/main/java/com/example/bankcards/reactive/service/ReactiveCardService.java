@@ -0,0 +1,74 @@
+package com.example.bankcards.reactive.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.PageResponse;
+import com.example.bankcards.exception.CardException;
+import com.example.bankcards.reactive.exception.ResourceNotFoundException;
+import com.example.bankcards.reactive.repository.CardRow;
+import com.example.bankcards.reactive.repository.ReactiveCardRepository;
+import com.example.bankcards.reactive.repository.ReactiveUserRepository;
+import com.example.bankcards.reactive.repository.UserRow;
+import com.example.bankcards.reactive.security.AuthenticatedUser;
+import com.example.bankcards.security.CardAccessPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveCardService {
+
+    private final ReactiveCardRepository cardRepository;
+    private final ReactiveUserRepository userRepository;
+
+    /**
+     * Get card by ID, for its owner or an admin
+     */
+    public Mono<CardDto> getCard(Long id, AuthenticatedUser user) {
+        return cardRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new CardException("Card not found with ID: " + id)))
+                .flatMap(card -> {
+                    if (!CardAccessPolicy.canAccess(card.ownerId(), user.id(), user.roles())) {
+                        return Mono.error(new AccessDeniedException(CardAccessPolicy.ACCESS_DENIED_MESSAGE));
+                    }
+                    return ownerUsername(card, user).map(username -> mapToDto(card, username));
+                });
+    }
+
+    /**
+     * Get a page of the current user's cards; the page and the count are queried concurrently
+     */
+    public Mono<PageResponse<CardDto>> getUserCards(AuthenticatedUser user, Pageable pageable) {
+        Mono<List<CardDto>> content = cardRepository.findAllByOwnerId(user.id(), pageable)
+                .map(card -> mapToDto(card, user.username()))
+                .collectList();
+
+        return Mono.zip(content, cardRepository.countByOwnerId(user.id()))
+                .map(result -> PageResponse.of(new PageImpl<>(result.getT1(), pageable, result.getT2())));
+    }
+
+    private Mono<String> ownerUsername(CardRow card, AuthenticatedUser user) {
+        if (card.ownerId().equals(user.id())) {
+            return Mono.just(user.username());
+        }
+        return userRepository.findById(card.ownerId())
+                .map(UserRow::username)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Owner not found with ID: " + card.ownerId())));
+    }
+
+    private CardDto mapToDto(CardRow card, String ownerUsername) {
+        return CardDto.builder()
+                .id(card.id())
+                .maskedNumber(card.maskedNumber())
+                .ownerUsername(ownerUsername)
+                .expirationDate(card.expirationDate())
+                .status(card.status())
+                .balance(card.balance())
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.util.JwtTokenUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+public class ReactiveCardControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    private String tokenFor(String username) {
+        return jwtTokenUtil.generateAccessToken(User.withUsername(username)
+                .password("unused")
+                .authorities("USER")
+                .build());
+    }
+
+    @Test
+    void getCard_AsOwner_ShouldReturnCard() {
+        webTestClient.get().uri("/api/cards/{id}", 1)
+                .headers(headers -> headers.setBearerAuth(tokenFor("alice")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.maskedNumber").isEqualTo("**** **** **** 1111")
+                .jsonPath("$.ownerUsername").isEqualTo("alice")
+                .jsonPath("$.status").isEqualTo("ACTIVE")
+                .jsonPath("$.cardNumber").doesNotExist();
+    }
+
+    @Test
+    void getCard_AsNonOwner_ShouldReturnForbidden() {
+        webTestClient.get().uri("/api/cards/{id}", 1)
+                .headers(headers -> headers.setBearerAuth(tokenFor("bob")))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void getCard_AsAdmin_ShouldReturnCard() {
+        webTestClient.get().uri("/api/cards/{id}", 3)
+                .headers(headers -> headers.setBearerAuth(tokenFor("admin")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.ownerUsername").isEqualTo("bob");
+    }
+
+    @Test
+    void getCard_WithMissingOwner_ShouldReturnNotFound() {
+        webTestClient.get().uri("/api/cards/{id}", 4)
+                .headers(headers -> headers.setBearerAuth(tokenFor("admin")))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Owner not found with ID: 99");
+    }
+
+    @Test
+    void getCard_NotFound_ShouldReturnBadRequest() {
+        webTestClient.get().uri("/api/cards/{id}", 999)
+                .headers(headers -> headers.setBearerAuth(tokenFor("alice")))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Card not found with ID: 999");
+    }
+
+    @Test
+    void getUserCards_ShouldReturnOnlyOwnCards() {
+        webTestClient.get().uri("/api/cards/my?page=0&size=10&sort=id")
+                .headers(headers -> headers.setBearerAuth(tokenFor("alice")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].id").isEqualTo(1)
+                .jsonPath("$.content[1].id").isEqualTo(2)
+                .jsonPath("$.page.totalElements").isEqualTo(2);
+    }
+
+    @Test
+    void getUserCards_WithoutToken_ShouldReturnUnauthorized() {
+        webTestClient.get().uri("/api/cards/my")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void getCard_WithInvalidToken_ShouldReturnUnauthorized() {
+        webTestClient.get().uri("/api/cards/{id}", 1)
+                .headers(headers -> headers.setBearerAuth("not-a-token"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void transfer_ShouldNotBeServedReactively() {
+        webTestClient.post().uri("/api/cards/transfer")
+                .headers(headers -> headers.setBearerAuth(tokenFor("alice")))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+}
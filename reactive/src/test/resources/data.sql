@@ -0,0 +1,14 @@
+INSERT INTO roles (id, name) VALUES (1, 'USER'), (2, 'ADMIN');
+
+INSERT INTO users (id, username, password) VALUES
+    (1, 'alice', 'unused'),
+    (2, 'bob', 'unused'),
+    (3, 'admin', 'unused');
+
+INSERT INTO user_roles (role_id, user_id) VALUES (1, 1), (1, 2), (1, 3), (2, 3);
+
+INSERT INTO cards (id, card_number, masked_number, last_four, user_id, expiration_date, status, balance, created_at, updated_at) VALUES
+    (1, 'encrypted', '**** **** **** 1111', '1111', 1, DATE '2030-01-31', 'ACTIVE', 1000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (2, 'encrypted', '**** **** **** 2222', '2222', 1, DATE '2030-01-31', 'BLOCKED', 500.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (3, 'encrypted', '**** **** **** 3333', '3333', 2, DATE '2030-01-31', 'ACTIVE', 250.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (4, 'encrypted', '**** **** **** 4444', '4444', 99, DATE '2030-01-31', 'ACTIVE', 100.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
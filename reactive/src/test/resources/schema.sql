@@ -0,0 +1,30 @@
+CREATE TABLE roles (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE user_roles (
+    role_id BIGINT NOT NULL REFERENCES roles (id),
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    PRIMARY KEY (role_id, user_id)
+);
+
+-- No foreign key to users, so that a card can outlive its owner as it might between two reads
+CREATE TABLE cards (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    card_number VARCHAR(255) NOT NULL,
+    masked_number VARCHAR(19) NOT NULL,
+    last_four VARCHAR(4) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expiration_date DATE NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
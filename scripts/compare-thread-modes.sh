@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Runs the same load against the application on platform threads and on virtual threads
+# and keeps the raw `hey` reports side by side in $RESULTS_DIR.
+#
+# Requires: a built jar (mvn clean package), a running Postgres (docker compose up db),
+# curl, jq and hey (https://github.com/rakyll/hey).
+#
+# Usage: scripts/compare-thread-modes.sh [concurrency] [duration]
+set -euo pipefail
+
+CONCURRENCY=${1:-1000}
+DURATION=${2:-60s}
+BASE_URL=${BASE_URL:-http://localhost:8080/api}
+MANAGEMENT_URL=${MANAGEMENT_URL:-http://localhost:8090}
+# Local runs publish card events to outbox/events.ndjson
+export OUTBOX_SINK=${OUTBOX_SINK:-file}
+RESULTS_DIR=${RESULTS_DIR:-target/thread-mode-comparison}
+JAR=$(ls target/bankcards-*.jar | grep -v plain | head -n 1)
+
+mkdir -p "$RESULTS_DIR"
+
+wait_for_startup() {
+    for _ in $(seq 1 60); do
+        if curl -sf "$MANAGEMENT_URL/actuator/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Application did not start" >&2
+    return 1
+}
+
+login() {
+    curl -sf -X POST "$BASE_URL/auth/login" \
+        -H 'Content-Type: application/json' \
+        -d '{"username":"admin","password":"admin"}' | jq -r '.token'
+}
+
+create_card() {
+    local token=$1 user_id=$2
+    curl -sf -X POST "$BASE_URL/cards" \
+        -H "Authorization: Bearer $token" \
+        -H 'Content-Type: application/json' \
+        -d "{\"userId\":$user_id,\"initialBalance\":1000000.00}" | jq -r '.id'
+}
+
+run_mode() {
+    local mode=$1 virtual=$2
+
+    VIRTUAL_THREADS_ENABLED=$virtual java -jar "$JAR" > "$RESULTS_DIR/$mode-app.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2> /dev/null || true' RETURN
+    wait_for_startup
+
+    local token user_id source_id destination_id
+    token=$(login)
+    user_id=$(curl -sf "$BASE_URL/users/paginated?page=0&size=100" -H "Authorization: Bearer $token" \
+        | jq -r '.content[] | select(.username == "admin") | .id')
+    source_id=$(create_card "$token" "$user_id")
+    destination_id=$(create_card "$token" "$user_id")
+
+    echo "== $mode: GET /cards/my, $CONCURRENCY concurrent for $DURATION"
+    hey -z "$DURATION" -c "$CONCURRENCY" \
+        -H "Authorization: Bearer $token" \
+        "$BASE_URL/cards/my?page=0&size=20" | tee "$RESULTS_DIR/$mode-cards-my.txt"
+
+    echo "== $mode: POST /cards/transfer, $CONCURRENCY concurrent for $DURATION"
+    hey -z "$DURATION" -c "$CONCURRENCY" -m POST \
+        -H "Authorization: Bearer $token" \
+        -H 'Content-Type: application/json' \
+        -d "{\"sourceCardId\":$source_id,\"destinationCardId\":$destination_id,\"amount\":0.01}" \
+        "$BASE_URL/cards/transfer" | tee "$RESULTS_DIR/$mode-transfer.txt"
+
+    curl -sf "$MANAGEMENT_URL/actuator/metrics/db.concurrency.rejected" -H "Authorization: Bearer $token" \
+        > "$RESULTS_DIR/$mode-rejected.json" || true
+}
+
+run_mode platform false
+run_mode virtual true
+
+echo "Reports written to $RESULTS_DIR"
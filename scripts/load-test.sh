@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Release load test: starts Postgres and the application locally, seeds users and cards
+# with COPY and replays the login / cards-my / get-card / transfer mix against it.
+#
+# Requires: docker compose, curl and a JDK 21.
+#
+# Usage: scripts/load-test.sh [users] [rate] [duration]
+#   USERS (default 1000000), CARDS_PER_USER (2), RATE requests/s (500), DURATION (5m),
+#   MIX (login=5,cards_my=50,get_card=30,transfer=15); extra JVM options for the application in APP_OPTS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+USERS=${1:-${USERS:-1000000}}
+RATE=${2:-${RATE:-500}}
+DURATION=${3:-${DURATION:-5m}}
+CARDS_PER_USER=${CARDS_PER_USER:-2}
+MIX=${MIX:-login=5,cards_my=50,get_card=30,transfer=15}
+BASE_URL=${BASE_URL:-http://localhost:8080/api}
+MANAGEMENT_URL=${MANAGEMENT_URL:-http://localhost:8090}
+# Local runs publish card events to outbox/events.ndjson
+export OUTBOX_SINK=${OUTBOX_SINK:-file}
+RESULTS_DIR=${RESULTS_DIR:-target/loadtest}
+
+mkdir -p "$RESULTS_DIR"
+
+docker compose up -d database
+mvn -B -q package -DskipTests
+mvn -B -q -f loadtest/pom.xml package
+
+JAR=$(ls target/bankcards-*.jar | grep -v plain | head -n 1)
+# shellcheck disable=SC2086
+java ${APP_OPTS:-} -jar "$JAR" > "$RESULTS_DIR/app.log" 2>&1 &
+APP_PID=$!
+trap 'kill $APP_PID 2> /dev/null || true' EXIT
+
+for _ in $(seq 1 120); do
+    if curl -sf "$MANAGEMENT_URL/actuator/health" > /dev/null; then
+        break
+    fi
+    sleep 1
+done
+curl -sf "$MANAGEMENT_URL/actuator/health" > /dev/null || { echo "Application did not start" >&2; exit 1; }
+
+java -jar loadtest/target/loadtest.jar seed --users "$USERS" --cards-per-user "$CARDS_PER_USER" --reset \
+    --manifest "$RESULTS_DIR/seed.json"
+java -jar loadtest/target/loadtest.jar run --base-url "$BASE_URL" --rate "$RATE" --duration "$DURATION" --mix "$MIX" \
+    --manifest "$RESULTS_DIR/seed.json" --report "$RESULTS_DIR/report.json"
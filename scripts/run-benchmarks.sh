@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks and writes machine-readable results.
+#
+#   scripts/run-benchmarks.sh [results.json] [jmh options...]
+#
+# Compare two runs, e.g. of consecutive releases, with
+#
+#   scripts/run-benchmarks.sh diff old.json new.json
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+if [[ "${1:-}" == "diff" ]]; then
+    old="$2"
+    new="$3"
+    # Benchmark name with its parameters, so that parameterized runs are compared one to one
+    key='.benchmark + ([.params // {} | to_entries[] | "[" + .key + "=" + .value + "]"] | join(""))'
+    jq -r -n --slurpfile old "$old" --slurpfile new "$new" "
+        (\$old[0] | map({key: ($key), value: .primaryMetric}) | from_entries) as \$before
+        | \$new[0][]
+        | ($key) as \$name
+        | .primaryMetric as \$after
+        | \$before[\$name] as \$was
+        | [\$name,
+           (\$was.score // \"-\" | tostring),
+           (\$after.score | tostring),
+           \$after.scoreUnit,
+           (if \$was then ((\$after.score - \$was.score) / \$was.score * 100 | floor | tostring) + \"%\" else \"new\" end)]
+        | @tsv" | column -t -s $'\t'
+    exit 0
+fi
+
+results="${1:-target/benchmarks/jmh-result.json}"
+shift || true
+mkdir -p "$(dirname "$results")"
+
+mvn -B -q install -DskipTests
+mvn -B -q -f benchmarks/pom.xml package
+java -jar benchmarks/target/benchmarks.jar -rf json -rff "$results" "$@"
+echo "Results written to $results"
@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of the application in each startup mode: plain JVM,
+# JVM with Spring AOT, JVM with AOT and the AppCDS archive, and the native image if built.
+# Time-to-first-request is the time from launching the process until /actuator/health answers.
+#
+# Requires: a running Postgres configured by DB_* (docker compose up -d database), curl and jq.
+# Build first with
+#   OUTBOX_SINK=file mvn -Pcds package   # jar with AOT classes, extracted jar and target/cds/application.jsa
+#   OUTBOX_SINK=file mvn -Pnative native:compile   # optional, target/bankcards
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8090}
+# Must match the build, whose bean conditions saw it
+export OUTBOX_SINK=${OUTBOX_SINK:-file}
+MANAGEMENT_URL="http://localhost:$MANAGEMENT_PORT"
+RESULTS_DIR=${RESULTS_DIR:-target/startup}
+CDS_JAR=$(ls target/cds/bankcards-*.jar 2> /dev/null | head -n 1 || true)
+
+if [[ -z "$CDS_JAR" || ! -f target/cds/application.jsa ]]; then
+    echo "Build with 'mvn -Pcds package' first" >&2
+    exit 1
+fi
+
+mkdir -p "$RESULTS_DIR"
+: > "$RESULTS_DIR/runs.jsonl"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+measure() {
+    local mode=$1 run=$2
+    shift 2
+
+    local log="$RESULTS_DIR/$mode-$run.log"
+    local started
+    started=$(now_ms)
+    SERVER_PORT=$PORT MANAGEMENT_PORT=$MANAGEMENT_PORT "$@" > "$log" 2>&1 &
+    local pid=$!
+
+    local ready=""
+    for _ in $(seq 1 3000); do
+        if curl -sf -o /dev/null "$MANAGEMENT_URL/actuator/health"; then
+            ready=$(now_ms)
+            break
+        fi
+        if ! kill -0 "$pid" 2> /dev/null; then
+            break
+        fi
+        sleep 0.02
+    done
+
+    local rss_kb
+    rss_kb=$(ps -o rss= -p "$pid" 2> /dev/null | tr -d ' ' || echo 0)
+    kill "$pid" 2> /dev/null || true
+    wait "$pid" 2> /dev/null || true
+
+    if [[ -z "$ready" ]]; then
+        echo "$mode run $run did not start, see $log" >&2
+        return 1
+    fi
+
+    # Spring's own figure, for comparison with the externally measured one
+    local reported
+    reported=$(grep -oE 'Started BankCardsApplication in [0-9.]+ seconds' "$log" | grep -oE '[0-9.]+' | head -n 1 || echo null)
+    jq -cn --arg mode "$mode" --argjson run "$run" --argjson ttfr "$((ready - started))" \
+        --argjson reported "${reported:-null}" --argjson rss "${rss_kb:-0}" \
+        '{mode: $mode, run: $run, timeToFirstRequestMs: $ttfr, reportedStartupSeconds: $reported, rssKb: $rss}' \
+        | tee -a "$RESULTS_DIR/runs.jsonl"
+}
+
+modes=(jvm aot cds)
+if [[ -x target/bankcards ]]; then
+    modes+=(native)
+fi
+
+for run in $(seq 1 "$RUNS"); do
+    for mode in "${modes[@]}"; do
+        case "$mode" in
+            jvm) measure jvm "$run" java -jar "$CDS_JAR" ;;
+            aot) measure aot "$run" java -Dspring.aot.enabled=true -jar "$CDS_JAR" ;;
+            cds) measure cds "$run" java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -jar "$CDS_JAR" ;;
+            native) measure native "$run" target/bankcards ;;
+        esac
+    done
+done
+
+# Median per mode
+jq -s 'group_by(.mode)
+       | map({mode: .[0].mode,
+              runs: length,
+              medianTimeToFirstRequestMs: (map(.timeToFirstRequestMs) | sort | .[length / 2 | floor]),
+              medianRssKb: (map(.rssKb) | sort | .[length / 2 | floor])})' \
+    "$RESULTS_DIR/runs.jsonl" | tee "$RESULTS_DIR/summary.json"
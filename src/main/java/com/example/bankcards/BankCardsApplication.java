@@ -1,9 +1,12 @@
 package com.example.bankcards;
 
+import com.example.bankcards.config.BankCardsRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(BankCardsRuntimeHints.class)
 public class BankCardsApplication {
 
     public static void main(String[] args) {
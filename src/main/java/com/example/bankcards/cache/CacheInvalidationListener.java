@@ -0,0 +1,169 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Listens for invalidations published by {@link CacheInvalidationPublisher} on other
+ * nodes and evicts the affected entries from the local second-level cache.
+ * Uses its own connection outside the pool, since LISTEN holds it for the node's lifetime.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+@Slf4j
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    static final String USER_ROLES = User.class.getName() + ".roles";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationPublisher publisher;
+    private final Counter receivedCounter;
+
+    @Value("${app.cache.invalidation.channel:bankcards_cache}")
+    private String channel;
+
+    @Value("${app.cache.invalidation.poll-timeout-ms:1000}")
+    private int pollTimeoutMs;
+
+    @Value("${app.cache.invalidation.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public CacheInvalidationListener(DataSourceProperties dataSourceProperties,
+                                     EntityManagerFactory entityManagerFactory,
+                                     CacheInvalidationPublisher publisher,
+                                     MeterRegistry meterRegistry) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.publisher = publisher;
+        this.receivedCounter = Counter.builder("cache.invalidation.received")
+                .description("Cache invalidations received from other nodes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid cache invalidation channel name: " + channel);
+        }
+
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cache invalidations on channel '{}'", channel);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // Anything published while we were disconnected is lost, so start from a clean cache
+                log.warn("Cache invalidation listener lost its connection, evicting all regions", e);
+                entityManagerFactory.getCache().evictAll();
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed cache invalidation '{}'", payload);
+            return;
+        }
+        if (parts[0].equals(publisher.getNodeId())) {
+            return;
+        }
+
+        receivedCounter.increment();
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        Class<?> entityClass = switch (parts[1]) {
+            case CacheInvalidationPublisher.CARD -> Card.class;
+            case CacheInvalidationPublisher.USER -> User.class;
+            default -> null;
+        };
+        if (entityClass == null) {
+            log.warn("Ignoring cache invalidation for unknown region '{}'", parts[1]);
+            return;
+        }
+
+        if (CacheInvalidationPublisher.ALL.equals(parts[2])) {
+            cache.evict(entityClass);
+        } else {
+            cache.evict(entityClass, Long.valueOf(parts[2]));
+        }
+
+        if (entityClass == User.class) {
+            // Roles live in a collection region of their own; a revoked role must not outlive the user entry
+            if (CacheInvalidationPublisher.ALL.equals(parts[2])) {
+                cache.evictCollectionData(USER_ROLES);
+            } else {
+                cache.evictCollectionData(USER_ROLES, Long.valueOf(parts[2]));
+            }
+            // findByUsername results are query-cached, including "not found" for users created since
+            cache.evictDefaultQueryRegion();
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts second-level cache invalidations to the other application nodes
+ * over Postgres NOTIFY. When called inside a transaction the notification is
+ * only delivered once that transaction commits.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    static final String CARD = "card";
+    static final String USER = "user";
+    static final String ALL = "*";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.cache.invalidation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.channel:bankcards_cache}")
+    private String channel;
+
+    public CacheInvalidationPublisher(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void cardChanged(Long cardId) {
+        publish(CARD, String.valueOf(cardId));
+    }
+
+    public void allCardsChanged() {
+        publish(CARD, ALL);
+    }
+
+    public void userChanged(Long userId) {
+        publish(USER, String.valueOf(userId));
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private void publish(String region, String id) {
+        if (!enabled) {
+            return;
+        }
+
+        String payload = nodeId + ":" + region + ":" + id;
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            return statement.execute();
+        });
+        log.debug("Published cache invalidation {}", payload);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.CardOwnerView;
+import com.example.bankcards.dto.CardVersion;
+import com.example.bankcards.outbox.CardEvents;
+import com.example.bankcards.outbox.OutboxMessage;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+/**
+ * Reflection, resource and proxy hints for the native image that Spring AOT cannot
+ * infer: JJWT loads its implementation by class name, Liquibase reads the changelogs
+ * from the classpath, Hibernate instantiates constructor-expression DTOs reflectively
+ * and datasource-proxy wraps JDBC objects in JDK proxies.
+ */
+public class BankCardsRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] JJWT_IMPLEMENTATION_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_IMPLEMENTATION_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        hints.resources().registerPattern("jwt.properties");
+
+        hints.resources().registerPattern("db/migration/*.yml");
+        hints.resources().registerPattern("db/migration/changelogs/*");
+
+        // Caffeine JCache region configuration of the second-level cache
+        hints.resources().registerPattern("application.conf");
+        hints.reflection().registerType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        hints.reflection().registerType(CardVersion.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(CardOwnerView.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // Serialized by Jackson outside of any controller signature
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                CardEvents.CardCreated.class, CardEvents.CardStatusChanged.class, CardEvents.TransferCompleted.class,
+                OutboxMessage.class);
+
+        Stream.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class)
+                .forEach(jdbcType -> hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType));
+    }
+}
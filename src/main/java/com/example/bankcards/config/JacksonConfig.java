@@ -1,5 +1,8 @@
 package com.example.bankcards.config;
 
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
 
@@ -8,4 +11,11 @@ import org.springframework.data.web.config.EnableSpringDataWebSupport;
         pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO
 )
 public class JacksonConfig {
+
+    // Registered with Boot's ObjectMapper like any other Module bean
+    @Bean
+    @ConditionalOnProperty(name = "app.jackson.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
 }
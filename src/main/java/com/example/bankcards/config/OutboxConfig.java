@@ -0,0 +1,60 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.outbox.FileOutboxSink;
+import com.example.bankcards.outbox.InMemoryOutboxSink;
+import com.example.bankcards.outbox.OutboxRelay;
+import com.example.bankcards.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Relay of the transactional outbox and the sink it publishes to, see {@code app.outbox}.
+ * With {@code app.outbox.sink=custom} the application context provides its own {@link OutboxSink}.
+ * There is no default sink: the relay deletes what it publishes, so a running relay must be
+ * told where events go, and refuses to start otherwise.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+    public FileOutboxSink fileOutboxSink(@Value("${app.outbox.file:outbox/events.ndjson}") String file,
+                                         ObjectMapper objectMapper) throws IOException {
+        return new FileOutboxSink(Path.of(file), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+    public InMemoryOutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(NamedParameterJdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectProvider<OutboxSink> sink,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+                                   @Value("${app.outbox.relay.max-batches-per-poll:50}") int maxBatchesPerPoll,
+                                   @Value("${app.outbox.relay.archive:false}") boolean archive) {
+        OutboxSink outboxSink = sink.getIfAvailable();
+        if (outboxSink == null) {
+            throw new IllegalStateException("The outbox relay has no sink: set app.outbox.sink (OUTBOX_SINK) to file "
+                    + "or memory, or to custom with an OutboxSink bean, or disable the relay with app.outbox.relay.enabled");
+        }
+        return new OutboxRelay(jdbcTemplate, new TransactionTemplate(transactionManager), outboxSink,
+                batchSize, maxBatchesPerPoll, archive, meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.limit.InMemoryRateLimitStore;
+import com.example.bankcards.limit.PostgresRateLimitStore;
+import com.example.bankcards.limit.RateLimitProperties;
+import com.example.bankcards.limit.RateLimitStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Chooses where the per-user token buckets live, see {@code app.rate-limit.store}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+    public RateLimitStore inMemoryRateLimitStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new InMemoryRateLimitStore(properties.maxKeys(), properties.idleExpiry(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "postgres")
+    public RateLimitStore postgresRateLimitStore(RateLimitProperties properties, NamedParameterJdbcTemplate jdbcTemplate) {
+        return new PostgresRateLimitStore(jdbcTemplate, properties.idleExpiry());
+    }
+}
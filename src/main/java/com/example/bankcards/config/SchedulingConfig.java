@@ -0,0 +1,16 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs: sweeper, reconciler, outbox relay, replica lag checks,
+ * event stream heartbeats and rate limit cleanup. Off in migrate-only mode, which exits as
+ * soon as the schema is migrated.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
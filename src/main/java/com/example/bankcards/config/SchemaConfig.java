@@ -0,0 +1,49 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.schema.SchemaMigrationJob;
+import com.example.bankcards.schema.SchemaMode;
+import com.example.bankcards.schema.SchemaVersionRecorder;
+import com.example.bankcards.schema.SchemaVersionVerifier;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Startup behaviour for each {@code app.schema.mode}, see {@link SchemaMode}.
+ */
+@Configuration
+public class SchemaConfig {
+
+    // Taking SpringLiquibase as an argument orders this after the migration
+    @Bean
+    @ConditionalOnProperty(name = "spring.liquibase.enabled", havingValue = "true", matchIfMissing = true)
+    public SchemaVersionRecorder schemaVersionRecorder(SpringLiquibase liquibase, JdbcTemplate jdbcTemplate) {
+        return new SchemaVersionRecorder(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = SchemaMode.PROPERTY, havingValue = "migrate-only")
+    public SchemaMigrationJob schemaMigrationJob(ConfigurableApplicationContext context) {
+        return new SchemaMigrationJob(context);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = SchemaMode.PROPERTY, havingValue = "verify")
+    static class VerifyConfig {
+
+        @Bean
+        public SchemaVersionVerifier schemaVersionVerifier(JdbcTemplate jdbcTemplate) {
+            return new SchemaVersionVerifier(jdbcTemplate);
+        }
+
+        // Fail on a stale schema before Hibernate reports it as a less helpful validation error
+        @Bean
+        static EntityManagerFactoryDependsOnPostProcessor schemaVersionVerifierDependsOnPostProcessor() {
+            return new EntityManagerFactoryDependsOnPostProcessor("schemaVersionVerifier");
+        }
+    }
+}
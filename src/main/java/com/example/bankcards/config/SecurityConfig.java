@@ -1,7 +1,10 @@
 package com.example.bankcards.config;
 
 import com.example.bankcards.exception.ExceptionHandlerFilter;
+import com.example.bankcards.filter.RateLimitFilter;
 import com.example.bankcards.security.JwtTokenFilter;
+import com.example.bankcards.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,12 +30,15 @@ import org.springframework.web.filter.CorsFilter;
 public class SecurityConfig {
     private final JwtTokenFilter jwtTokenFilter;
     private final ExceptionHandlerFilter exceptionHandlerFilter;
+    private final RateLimitFilter rateLimitFilter;
 
 
     public SecurityConfig(JwtTokenFilter jwtTokenFilter,
-                          ExceptionHandlerFilter exceptionHandlerFilter) {
+                          ExceptionHandlerFilter exceptionHandlerFilter,
+                          RateLimitFilter rateLimitFilter) {
         this.jwtTokenFilter = jwtTokenFilter;
         this.exceptionHandlerFilter = exceptionHandlerFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -44,11 +50,19 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth ->
                         auth
+                            // Streamed responses finish on an async dispatch of a request that was already authorized
+                            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                             .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                             .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/api-docs/**", "/api-docs.yaml").permitAll()
+                            .requestMatchers("/actuator/health").permitAll()
+                            // Scraped by Prometheus, which has no JWT; actuator is only served on management.server.port
+                            .requestMatchers("/actuator/prometheus").permitAll()
+                            .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                             .requestMatchers("/users/**").hasAuthority("ADMIN")
                             .requestMatchers(HttpMethod.POST, "/cards").hasAuthority("ADMIN")
                             .requestMatchers(HttpMethod.GET, "/cards").hasAuthority("ADMIN")
+                            .requestMatchers(HttpMethod.GET, "/cards/export").hasAuthority("ADMIN")
+                            .requestMatchers(HttpMethod.GET, "/cards/search").hasAuthority("ADMIN")
                             .requestMatchers(HttpMethod.DELETE, "/cards/**").hasAuthority("ADMIN")
                             .requestMatchers("/cards/**").authenticated()
                             .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
@@ -56,12 +70,14 @@ public class SecurityConfig {
                 )
                 .addFilterBefore(exceptionHandlerFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class)
+                // Needs the principal set by the JWT filter
+                .addFilterAfter(rateLimitFilter, JwtTokenFilter.class)
                 .build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(12), meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,46 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.datasource.SqlStatisticsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source in a datasource-proxy that accounts
+ * statements, rows and time to the current request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    // Static, so that registering the post-processor does not instantiate this configuration early
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the data source everything is wired with; the routing pools behind it are used directly
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+
+                long slowQueryThresholdMs = environment
+                        .getProperty("app.sql-statistics.slow-query-threshold-ms", Long.class, 200L);
+                SqlStatisticsListener listener = new SqlStatisticsListener(slowQueryThresholdMs);
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(DATA_SOURCE_BEAN)
+                        .listener(listener)
+                        .methodListener(listener)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+}
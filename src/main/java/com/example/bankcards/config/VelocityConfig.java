@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.fraud.VelocityChecker;
+import com.example.bankcards.fraud.VelocityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-memory velocity screening of transfers, see {@code app.fraud.velocity}.
+ */
+@Configuration
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityConfig {
+
+    @Bean
+    public VelocityChecker velocityChecker(VelocityProperties properties, MeterRegistry meterRegistry) {
+        return new VelocityChecker(properties, meterRegistry);
+    }
+}
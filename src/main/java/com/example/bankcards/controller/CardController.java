@@ -1,18 +1,40 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BatchGetCardsRequest;
+import com.example.bankcards.dto.BatchGetCardsResponse;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardExportFormat;
+import com.example.bankcards.dto.CardLimitsDto;
+import com.example.bankcards.dto.CardSearchRequest;
+import com.example.bankcards.dto.CardSearchResponse;
 import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.ETagged;
+import com.example.bankcards.dto.PageResponse;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.UpdateCardLimitsRequest;
 import com.example.bankcards.dto.UpdateCardStatusRequest;
+import com.example.bankcards.service.CardEventBus;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.CardExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/cards")
@@ -20,6 +42,8 @@ import org.springframework.web.bind.annotation.*;
 public class CardController {
     
     private final CardService cardService;
+    private final CardEventBus cardEventBus;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -28,19 +52,72 @@ public class CardController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<CardDto> getCard(@PathVariable Long id) {
-        return ResponseEntity.ok(cardService.getCard(id));
+    public ResponseEntity<CardDto> getCard(@PathVariable Long id, WebRequest webRequest) {
+        // Revalidation only needs the card's timestamp, not the card
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = cardService.getCardETag(id);
+            if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+                return null;
+            }
+        }
+        
+        ETagged<CardDto> card = cardService.getCardWithETag(id);
+        return ResponseEntity.ok()
+                .eTag(card.eTag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(card.body());
+    }
+    
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetCardsResponse> batchGetCards(@Valid @RequestBody BatchGetCardsRequest request) {
+        return ResponseEntity.ok(cardService.batchGetCards(request));
+    }
+    
+    @GetMapping(path = "/my", produces = {MediaType.APPLICATION_JSON_VALUE, PageResponse.V1_MEDIA_TYPE})
+    public ResponseEntity<PageResponse<CardDto>> getUserCards(Pageable pageable) {
+        return ResponseEntity.ok(PageResponse.of(cardService.getUserCards(pageable)));
     }
     
-    @GetMapping("/my")
-    public ResponseEntity<Page<CardDto>> getUserCards(Pageable pageable) {
-        return ResponseEntity.ok(cardService.getUserCards(pageable));
+    @GetMapping(path = "/my/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserCardEvents(Authentication authentication) {
+        return cardEventBus.subscribe(authentication.getName());
     }
     
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, PageResponse.V1_MEDIA_TYPE})
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Page<CardDto>> getAllCards(Pageable pageable) {
-        return ResponseEntity.ok(cardService.getAllCards(pageable));
+    public ResponseEntity<PageResponse<CardDto>> getAllCards(Pageable pageable) {
+        return ResponseEntity.ok(PageResponse.of(cardService.getAllCards(pageable)));
+    }
+    
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<CardSearchResponse> searchCards(@Valid CardSearchRequest request) {
+        return ResponseEntity.ok(cardService.searchCards(request));
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCards(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CardExportFormat exportFormat = CardExportFormat.fromExtension(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            try (CardExportWriter writer = new CardExportWriter(exportFormat, out, objectMapper)) {
+                cardService.exportCards(writer::write);
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=cards." + exportFormat.getExtension())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
     
     @PutMapping("/status")
@@ -49,6 +126,18 @@ public class CardController {
         return ResponseEntity.noContent().build();
     }
     
+    @GetMapping("/{id}/limits")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<CardLimitsDto> getCardLimits(@PathVariable Long id) {
+        return ResponseEntity.ok(cardService.getCardLimits(id));
+    }
+    
+    @PutMapping("/{id}/limits")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<CardLimitsDto> updateCardLimits(@PathVariable Long id, @Valid @RequestBody UpdateCardLimitsRequest request) {
+        return ResponseEntity.ok(cardService.updateCardLimits(id, request));
+    }
+    
     @PostMapping("/transfer")
     public ResponseEntity<Void> transferMoney(@Valid @RequestBody TransferRequest request) {
         cardService.transferMoney(request);
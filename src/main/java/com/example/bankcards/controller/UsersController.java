@@ -3,10 +3,15 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.*;
 import com.example.bankcards.service.UserService;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("users")
@@ -16,14 +21,26 @@ public class UsersController {
         this.userService = userService;
     }
 
-    @GetMapping("paginated")
-    public Page<ListUsersResponse> getPaginatedUsers(Pageable pageable) {
-        return userService.getPaginatedUsers(pageable);
+    @GetMapping(path = "paginated", produces = {MediaType.APPLICATION_JSON_VALUE, PageResponse.V1_MEDIA_TYPE})
+    public PageResponse<ListUsersResponse> getPaginatedUsers(Pageable pageable) {
+        return PageResponse.of(userService.getPaginatedUsers(pageable));
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<GetUserResponse> getUser(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUser(id));
+    public ResponseEntity<GetUserResponse> getUser(@PathVariable Long id, WebRequest webRequest) {
+        // Revalidation only needs the version column
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = userService.getUserETag(id);
+            if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+                return null;
+            }
+        }
+
+        ETagged<GetUserResponse> user = userService.getUserWithETag(id);
+        return ResponseEntity.ok()
+                .eTag(user.eTag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(user.body());
     }
 
     @PostMapping("add")
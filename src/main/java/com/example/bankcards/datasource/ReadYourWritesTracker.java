@@ -0,0 +1,38 @@
+package com.example.bankcards.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently, so their reads stay on the primary
+ * until every replica that may serve them has caught up with the write.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowNanos = windowMs * 1_000_000L;
+    }
+
+    public void recordWrite(String username) {
+        if (username != null) {
+            pinnedUntil.put(username, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean requiresPrimary(String username) {
+        if (username == null) {
+            return false;
+        }
+
+        Long until = pinnedUntil.get(username);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.bankcards.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically measures replication lag on every replica and hands out
+ * replicas that are within the allowed lag in round-robin order.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // A replica that has replayed everything it received is not lagging, however old its last transaction is
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicaDataSources,
+                             ReadYourWritesTracker readYourWritesTracker,
+                             long maxLagMs,
+                             MeterRegistry meterRegistry) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLagMs = maxLagMs;
+
+        replicaDataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            replicas.add(replica);
+
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMs)
+                    .description("Replication lag of the replica in milliseconds")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is within the allowed lag and receives reads")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    public Map<String, DataSource> getReplicaDataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        replicas.forEach(replica -> dataSources.put(replica.name, replica.dataSource));
+        return dataSources;
+    }
+
+    /**
+     * Pick the next replica that may serve reads, or empty if all of them lag too far behind.
+     */
+    public Optional<String> nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return Optional.of(replica.name);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                replica.lagMs = resultSet.getDouble(1);
+                boolean healthy = replica.lagMs <= maxLagMs;
+                if (healthy && !replica.healthy) {
+                    log.info("Replica {} is in rotation (lag {} ms)", replica.name, replica.lagMs);
+                } else if (!healthy && replica.healthy) {
+                    log.warn("Replica {} lags {} ms behind the primary, routing its reads to the primary", replica.name, replica.lagMs);
+                }
+                replica.healthy = healthy;
+            } catch (Exception e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} is unreachable, routing its reads to the primary", replica.name, e);
+                }
+                replica.healthy = false;
+            }
+        }
+        readYourWritesTracker.purgeExpired();
+    }
+
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile double lagMs;
+        // Replicas start out of rotation until the first lag check has passed
+        private volatile boolean healthy;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.datasource;
+
+/**
+ * Statements, rows and database time accumulated by the request bound to the
+ * current thread. Work handed off to other threads (async exports) is not counted.
+ */
+public class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+    private long timeNanos;
+    private long queryStartNanos;
+
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Statistics of the current request, or null when the thread is not serving one.
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void queryStarted() {
+        queryStartNanos = System.nanoTime();
+    }
+
+    void queryFinished(int statementCount) {
+        statements += statementCount;
+        timeNanos += System.nanoTime() - queryStartNanos;
+    }
+
+    void addRows(long count) {
+        rows += count;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+}
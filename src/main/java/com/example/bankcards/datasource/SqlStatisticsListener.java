@@ -0,0 +1,96 @@
+package com.example.bankcards.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds every statement executed through the proxied data source into the
+ * statistics of the current request, and logs statements slower than the
+ * threshold without their bound parameters or inline string literals.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final Logger SLOW_QUERY_LOG = LoggerFactory.getLogger("com.example.bankcards.sql.slow");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private final long slowQueryThresholdMs;
+
+    public SqlStatisticsListener(long slowQueryThresholdMs) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.queryStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.queryFinished(execInfo.isBatch() ? execInfo.getBatchSize() : queryInfoList.size());
+            statistics.addRows(updateCount(execInfo.getResult()));
+        }
+
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMs && SLOW_QUERY_LOG.isWarnEnabled()) {
+            SLOW_QUERY_LOG.warn("Slow query took {} ms, {} bound parameters masked: {}",
+                    execInfo.getElapsedTime(), parameterCount(queryInfoList), maskedQuery(queryInfoList));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    // Rows read are counted as the result set is consumed
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlStatistics statistics = SqlStatistics.current();
+            if (statistics != null) {
+                statistics.addRows(1);
+            }
+        }
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return 0;
+    }
+
+    private static int parameterCount(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .mapToInt(queryInfo -> queryInfo.getParametersList().stream().mapToInt(List::size).sum())
+                .sum();
+    }
+
+    private static String maskedQuery(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(queryInfo -> STRING_LITERAL.matcher(queryInfo.getQuery()).replaceAll("'?'"))
+                .collect(Collectors.joining("; "));
+    }
+}
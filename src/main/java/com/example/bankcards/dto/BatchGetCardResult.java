@@ -0,0 +1,27 @@
+package com.example.bankcards.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome for one requested ID: either the card or the reason it was not returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchGetCardResult {
+    private Long id;
+    private CardDto card;
+    private String error;
+
+    public static BatchGetCardResult found(CardDto card) {
+        return new BatchGetCardResult(card.getId(), card, null);
+    }
+
+    public static BatchGetCardResult failed(Long id, String error) {
+        return new BatchGetCardResult(id, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetCardsRequest {
+    @NotEmpty(message = "Card IDs are required")
+    private List<@NotNull(message = "Card ID must not be null") Long> ids;
+}
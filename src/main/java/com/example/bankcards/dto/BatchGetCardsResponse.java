@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetCardsResponse {
+    // One entry per requested ID, in request order
+    private List<BatchGetCardResult> results;
+}
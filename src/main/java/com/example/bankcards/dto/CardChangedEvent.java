@@ -0,0 +1,7 @@
+package com.example.bankcards.dto;
+
+/**
+ * Published inside the transaction that changed a card; delivered to subscribers after it commits.
+ */
+public record CardChangedEvent(String ownerUsername, CardDto card) {
+}
@@ -0,0 +1,28 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.exception.CardException;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+public enum CardExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    CardExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public static CardExportFormat fromExtension(String extension) {
+        for (CardExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(extension)) {
+                return format;
+            }
+        }
+        throw new CardException(CardException.Reason.INVALID_REQUEST, "Unsupported export format: " + extension);
+    }
+}
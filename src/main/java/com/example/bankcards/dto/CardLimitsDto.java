@@ -0,0 +1,23 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardLimitsDto {
+    private Long cardId;
+    // Limits in effect, the card's own or the defaults
+    private BigDecimal dailyLimit;
+    private BigDecimal monthlyLimit;
+    private boolean dailyLimitOverridden;
+    private boolean monthlyLimitOverridden;
+    private BigDecimal spentToday;
+    private BigDecimal spentThisMonth;
+}
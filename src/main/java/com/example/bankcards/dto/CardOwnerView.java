@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A card with just the owner columns needed to authorize and render it.
+ */
+public record CardOwnerView(
+        Long id,
+        String maskedNumber,
+        Long ownerId,
+        String ownerUsername,
+        LocalDate expirationDate,
+        Card.CardStatus status,
+        BigDecimal balance) {
+}
@@ -0,0 +1,47 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class CardSearchRequest {
+    private Long ownerId;
+
+    private Card.CardStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiresFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiresTo;
+
+    private BigDecimal minBalance;
+
+    private BigDecimal maxBalance;
+
+    @Pattern(regexp = "\\d{4}", message = "Last four digits must be exactly 4 digits")
+    private String lastFour;
+
+    private Long afterId;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size must be at most 100")
+    private int size = 20;
+
+    /**
+     * True when at least one filter leads an index on the cards table.
+     * Status and balance alone would mean a full table scan.
+     */
+    public boolean hasIndexedFilter() {
+        return ownerId != null || lastFour != null || expiresFrom != null || expiresTo != null;
+    }
+}
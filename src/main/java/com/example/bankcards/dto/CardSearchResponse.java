@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSearchResponse {
+    private List<CardSummaryDto> content;
+    // Pass as afterId to fetch the next page; null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSummaryDto {
+    private Long id;
+    private String maskedNumber;
+    private Long ownerId;
+    private LocalDate expirationDate;
+    private Card.CardStatus status;
+    private BigDecimal balance;
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just enough of a card to authorize a conditional GET and compute its ETag.
+ */
+public record CardVersion(Long ownerId, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.dto;
+
+/**
+ * A response body together with the entity tag of the state it was built from.
+ */
+public record ETagged<T>(T body, String eTag) {
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Body of every error response.
+ */
+public record ErrorResponse(
+        int status,
+        String error,
+        String message,
+        Instant timestamp,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, Object> details) {
+
+    public static ErrorResponse of(HttpStatus status, String message) {
+        return of(status, message, null);
+    }
+
+    public static ErrorResponse of(HttpStatus status, String message, Map<String, Object> details) {
+        return new ErrorResponse(status.value(), status.getReasonPhrase(), message, Instant.now(), details);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Page envelope of the list endpoints. It has the shape Spring Data's {@code PagedModel}
+ * gave these responses before, but is owned by the API and versioned by media type:
+ * {@link #V1_MEDIA_TYPE} only ever gains fields, and a change that renames or removes
+ * one is served as a new version next to it. {@code application/json} is the current
+ * version.
+ */
+public record PageResponse<T>(List<T> content, Metadata page) {
+
+    public static final String V1_MEDIA_TYPE = "application/vnd.bankcards.page.v1+json";
+
+    public record Metadata(int size, int number, long totalElements, int totalPages) {
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(),
+                new Metadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-card transfer limits; a limit left out falls back to the configured default.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateCardLimitsRequest {
+    @DecimalMin(value = "0.00", message = "Daily limit cannot be negative")
+    private BigDecimal dailyLimit;
+    
+    @DecimalMin(value = "0.00", message = "Monthly limit cannot be negative")
+    private BigDecimal monthlyLimit;
+}
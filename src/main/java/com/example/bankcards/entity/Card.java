@@ -2,6 +2,9 @@ package com.example.bankcards.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,6 +14,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cards")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cards")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +32,9 @@ public class Card {
     @Column(name = "masked_number", nullable = false, length = 19)
     private String maskedNumber;
 
+    @Column(name = "last_four", nullable = false, length = 4)
+    private String lastFour;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User owner;
@@ -41,6 +49,30 @@ public class Card {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
 
+    // Overrides of app.card.daily-transfer-limit and monthly-transfer-limit; null uses the default
+    @Column(name = "daily_limit", precision = 19, scale = 2)
+    private BigDecimal dailyLimit;
+
+    @Column(name = "monthly_limit", precision = 19, scale = 2)
+    private BigDecimal monthlyLimit;
+
+    // Outbound totals of the day and month they were last charged in, written by the same UPDATE as the debit
+    @Column(name = "spent_day")
+    private LocalDate spentDay;
+
+    @Column(name = "spent_today", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal spentToday = BigDecimal.ZERO;
+
+    @Column(name = "spent_month")
+    private LocalDate spentMonth;
+
+    @Column(name = "spent_this_month", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal spentThisMonth = BigDecimal.ZERO;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
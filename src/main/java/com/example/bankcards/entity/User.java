@@ -2,6 +2,9 @@ package com.example.bankcards.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +16,8 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,7 +35,17 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String password;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Maintained by UserRepository's conditional updates only; may be stale on a cached entity
+    @Column(name = "card_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int cardCount;
+
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
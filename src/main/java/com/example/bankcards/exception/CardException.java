@@ -1,7 +1,42 @@
 package com.example.bankcards.exception;
 
+import java.util.Locale;
+
 public class CardException extends RuntimeException {
+
+    /**
+     * Why a card operation was rejected; used as the outcome tag of card metrics.
+     */
+    public enum Reason {
+        NOT_FOUND,
+        INVALID_REQUEST,
+        CARD_LIMIT_REACHED,
+        AMOUNT_LIMIT_EXCEEDED,
+        SPEND_LIMIT_EXCEEDED,
+        SAME_CARD,
+        CARD_NOT_ACTIVE,
+        CARD_EXPIRED,
+        INSUFFICIENT_FUNDS,
+        VELOCITY_LIMIT_EXCEEDED,
+        OTHER;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Reason reason;
+
     public CardException(String message) {
+        this(Reason.OTHER, message);
+    }
+
+    public CardException(Reason reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
     }
-}
\ No newline at end of file
+}
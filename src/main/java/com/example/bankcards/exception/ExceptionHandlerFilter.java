@@ -1,8 +1,7 @@
 package com.example.bankcards.exception;
 
+import com.example.bankcards.util.ErrorResponseTemplate;
 import com.example.bankcards.util.ErrorResponseUtil;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -21,8 +20,14 @@ import java.io.IOException;
 @Component
 public class ExceptionHandlerFilter extends OncePerRequestFilter {
     private final ErrorResponseUtil errorResponseUtil;
+    // Bad-token floods hit these on every request
+    private final ErrorResponseTemplate invalidToken;
+    private final ErrorResponseTemplate expiredToken;
+
     public ExceptionHandlerFilter(ErrorResponseUtil errorResponseUtil) {
         this.errorResponseUtil = errorResponseUtil;
+        this.invalidToken = errorResponseUtil.createTemplate(HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+        this.expiredToken = errorResponseUtil.createTemplate(HttpStatus.UNAUTHORIZED, "JWT token has expired");
     }
 
 	@Override
@@ -30,17 +35,9 @@ public class ExceptionHandlerFilter extends OncePerRequestFilter {
         try {
             filterChain.doFilter(request, response);
         } catch (SignatureException | MalformedJwtException | UnsupportedJwtException e) {
-            errorResponseUtil.setErrorResponse(
-                response,
-                HttpStatus.UNAUTHORIZED,
-                "Invalid JWT token"
-            );
+            invalidToken.write(response);
         } catch (ExpiredJwtException e) {
-            errorResponseUtil.setErrorResponse(
-                response,
-                HttpStatus.UNAUTHORIZED,
-                "JWT token has expired"
-            );
+            expiredToken.write(response);
         } catch (JwtException e) {
             errorResponseUtil.setErrorResponse(
                 response,
@@ -0,0 +1,178 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.limit.AdaptiveConcurrencyLimiter;
+import com.example.bankcards.limit.VegasLimit;
+import com.example.bankcards.util.ErrorResponseUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load on the card and user endpoints before it queues up behind the connection
+ * pool. Each endpoint group has its own adaptive limit; requests over it are answered
+ * with 503 right away, before authentication touches the database. An export keeps
+ * its slot until its stream has been written, since it holds a connection throughout;
+ * event streams give theirs back once they have started.
+ */
+@Component
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final String PROPERTY_PREFIX = "app.concurrency-limit.";
+    private static final Map<String, String> GROUPS_BY_PATH_PREFIX = Map.of(
+            "/cards", "cards",
+            "/users", "users");
+    // POSTs that only read
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/cards/batch-get");
+    // Asynchronous responses that read from the database until they complete
+    private static final Set<String> ASYNC_DATABASE_READS = Set.of("/cards/export");
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new LinkedHashMap<>();
+    private final ErrorResponseUtil errorResponseUtil;
+    private final String retryAfterSeconds;
+
+    public AdaptiveConcurrencyFilter(Environment environment,
+                                     ErrorResponseUtil errorResponseUtil,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.errorResponseUtil = errorResponseUtil;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        for (String group : GROUPS_BY_PATH_PREFIX.values()) {
+            limiters.put(group, createLimiter(group, environment, meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return groupOf(path(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = path(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(groupOf(path));
+        if (!limiter.tryAcquire(priorityOf(request.getMethod(), path))) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            errorResponseUtil.setErrorResponse(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streams and exports run long by design, so their latency is no sample
+                if (ASYNC_DATABASE_READS.contains(path)) {
+                    request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter));
+                } else {
+                    limiter.releaseWithoutSample();
+                }
+            } else {
+                int status = response.getStatus();
+                boolean dropped = failed
+                        || status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                        || status == HttpStatus.GATEWAY_TIMEOUT.value();
+                limiter.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter createLimiter(String group, Environment environment, MeterRegistry meterRegistry) {
+        VegasLimit limit = new VegasLimit(
+                property(environment, group, "initial-limit", 20),
+                property(environment, group, "min-limit", 5),
+                property(environment, group, "max-limit", 200),
+                property(environment, group, "probe-interval", 1000));
+        double writeShare = environment.getProperty(PROPERTY_PREFIX + group + ".write-share", Double.class,
+                environment.getProperty(PROPERTY_PREFIX + "write-share", Double.class, 0.5));
+        return new AdaptiveConcurrencyLimiter(group, limit, writeShare, meterRegistry);
+    }
+
+    // A group setting, falling back to the setting for all groups
+    private static int property(Environment environment, String group, String name, int defaultValue) {
+        return environment.getProperty(PROPERTY_PREFIX + group + "." + name, Integer.class,
+                environment.getProperty(PROPERTY_PREFIX + name, Integer.class, defaultValue));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String groupOf(String path) {
+        for (Map.Entry<String, String> entry : GROUPS_BY_PATH_PREFIX.entrySet()) {
+            String prefix = entry.getKey();
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static AdaptiveConcurrencyLimiter.Priority priorityOf(String method, String path) {
+        boolean read = "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                || ("POST".equals(method) && READ_ONLY_POSTS.contains(path));
+        return read ? AdaptiveConcurrencyLimiter.Priority.READ : AdaptiveConcurrencyLimiter.Priority.WRITE;
+    }
+
+    /**
+     * Releases the slot of an asynchronous request once, whichever way it ends: an error
+     * or timeout is followed by completion.
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseOnCompletion(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.util.ErrorResponseUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * With virtual threads the container no longer bounds how many requests run at once,
+ * so requests that reach the database are admitted through a semaphore sized to the
+ * connection pool. Waiting here is cheap for a virtual thread; a request that cannot
+ * get a permit in time is answered with 503 instead of piling up inside Hikari.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final ErrorResponseUtil errorResponseUtil;
+    private final Counter rejectedCounter;
+
+    public DatabaseConcurrencyFilter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                     @Value("${app.db-concurrency.acquire-timeout-ms:5000}") long acquireTimeoutMs,
+                                     ErrorResponseUtil errorResponseUtil,
+                                     MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(poolSize, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.errorResponseUtil = errorResponseUtil;
+        this.rejectedCounter = Counter.builder("db.concurrency.rejected")
+                .description("Requests rejected because no database permit became free in time")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a database permit")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.available", permits, Semaphore::availablePermits)
+                .description("Free database permits")
+                .register(meterRegistry);
+        log.info("Database concurrency capped at {} concurrent requests", poolSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator") || path.startsWith("/swagger-ui") || path.startsWith("/api-docs");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejectedCounter.increment();
+            errorResponseUtil.setErrorResponse(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
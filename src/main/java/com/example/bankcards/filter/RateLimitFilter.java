@@ -0,0 +1,102 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.limit.RateLimitProperties;
+import com.example.bankcards.limit.RateLimitStore;
+import com.example.bankcards.util.ErrorResponseUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Applies the per-user token bucket limits of {@link RateLimitProperties}. Runs in the
+ * security chain right after {@code JwtTokenFilter}, so buckets are keyed by the
+ * authenticated username; unauthenticated requests are not limited here.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+
+    private record CompiledRule(RateLimitProperties.Rule rule, PathPattern pattern, Counter rejected, String retryAfterSeconds) {
+
+        boolean matches(String method, PathContainer path) {
+            return (rule.method() == null || rule.method().isEmpty() || rule.method().equalsIgnoreCase(method))
+                    && pattern.matches(path);
+        }
+    }
+
+    private final RateLimitStore store;
+    private final ErrorResponseUtil errorResponseUtil;
+    private final boolean enabled;
+    private final List<CompiledRule> rules;
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           RateLimitStore store,
+                           ErrorResponseUtil errorResponseUtil,
+                           MeterRegistry meterRegistry) {
+        this.store = store;
+        this.errorResponseUtil = errorResponseUtil;
+        this.enabled = properties.enabled();
+        this.rules = properties.rules().stream()
+                .map(rule -> new CompiledRule(
+                        rule,
+                        PathPatternParser.defaultInstance.parse(rule.path()),
+                        Counter.builder("rate-limit.rejected")
+                                .description("Requests rejected because the user ran out of tokens")
+                                .tag("rule", rule.name())
+                                .register(meterRegistry),
+                        // Time until one token is back
+                        String.valueOf((long) Math.ceil(1 / rule.refillPerSecond()))))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CompiledRule rule = ruleFor(request);
+        if (rule != null && !store.tryConsume(authentication.getName() + ":" + rule.rule().name(), rule.rule())) {
+            rule.rejected().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, rule.retryAfterSeconds());
+            response.setHeader(LIMIT_HEADER, String.valueOf(rule.rule().capacity()));
+            errorResponseUtil.setErrorResponse(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded, please retry later");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private CompiledRule ruleFor(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (CompiledRule rule : rules) {
+            if (rule.matches(request.getMethod(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.datasource.SqlStatistics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the SQL statistics of each request, including the user lookup of the
+ * security filters, and records them per URI pattern. Outside production the
+ * totals are also returned as response headers.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeaders;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry,
+                               @Value("${app.sql-statistics.response-headers:false}") boolean responseHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        HttpServletResponse target = response;
+        if (responseHeaders) {
+            // Headers must be in place before the body commits the response
+            target = new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    writeHeaders(response, statistics);
+                }
+            };
+        }
+
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            SqlStatistics.clear();
+            if (responseHeaders && !response.isCommitted()) {
+                writeHeaders(response, statistics);
+            }
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("db.request.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("db.request.rows")
+                .description("Rows read or written per HTTP request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+        Timer.builder("db.request.time")
+                .description("Time spent executing SQL per HTTP request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getTimeNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlStatistics statistics) {
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+        response.setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+        response.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getTimeNanos() / 1_000_000.0));
+    }
+}
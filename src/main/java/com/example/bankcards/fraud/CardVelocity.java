@@ -0,0 +1,115 @@
+package com.example.bankcards.fraud;
+
+import java.util.List;
+
+/**
+ * Velocity state of one source card: a ring counter per rule and the card's most
+ * recent destinations.
+ */
+class CardVelocity {
+
+    /**
+     * What an admitted transfer added, so that it can be taken back if it rolls back.
+     */
+    record Recorded(long nanos, long destinationCardId, long amountUnits, boolean newDestination) {
+    }
+
+    /**
+     * Either the rule that denied the transfer, or what was recorded for it.
+     */
+    record Outcome(VelocityProperties.Rule deniedBy, Recorded recorded) {
+    }
+
+    // Card ids are positive, so this never matches a destination
+    private static final long FORGOTTEN = -1;
+
+    private final List<VelocityProperties.Rule> rules;
+    private final long[] limits;
+    private final RingCounter[] counters;
+    private final long[] recentDestinations;
+    private int recentCount;
+    private int nextRecent;
+
+    CardVelocity(List<VelocityProperties.Rule> rules, int bucketsPerWindow, int knownDestinations) {
+        this.rules = rules;
+        this.limits = new long[rules.size()];
+        this.counters = new RingCounter[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            limits[i] = rules.get(i).limitUnits();
+            counters[i] = new RingCounter(rules.get(i).window().toNanos(), bucketsPerWindow);
+        }
+        this.recentDestinations = new long[knownDestinations];
+    }
+
+    /**
+     * Admit and record a transfer if no rule denies it. Checking and recording happen
+     * atomically, so concurrent transfers from the card cannot both slip under a limit.
+     */
+    synchronized Outcome tryRecord(long nowNanos, long destinationCardId, long amountUnits) {
+        boolean newDestination = !isRecentDestination(destinationCardId);
+        for (int i = 0; i < counters.length; i++) {
+            long increment = increment(rules.get(i).metric(), amountUnits, newDestination);
+            if (increment > 0 && counters[i].sum(nowNanos) + increment > limits[i]) {
+                return new Outcome(rules.get(i), null);
+            }
+        }
+
+        for (int i = 0; i < counters.length; i++) {
+            long increment = increment(rules.get(i).metric(), amountUnits, newDestination);
+            if (increment > 0) {
+                counters[i].add(counters[i].bucketOf(nowNanos), increment);
+            }
+        }
+        if (newDestination) {
+            rememberDestination(destinationCardId);
+        }
+        return new Outcome(null, new Recorded(nowNanos, destinationCardId, amountUnits, newDestination));
+    }
+
+    synchronized void revert(Recorded recorded) {
+        for (int i = 0; i < counters.length; i++) {
+            long increment = increment(rules.get(i).metric(), recorded.amountUnits(), recorded.newDestination());
+            if (increment > 0) {
+                counters[i].subtract(counters[i].bucketOf(recorded.nanos()), increment);
+            }
+        }
+        if (recorded.newDestination()) {
+            forgetDestination(recorded.destinationCardId());
+        }
+    }
+
+    private static long increment(VelocityProperties.Metric metric, long amountUnits, boolean newDestination) {
+        return switch (metric) {
+            case TRANSFER_COUNT -> 1;
+            case AMOUNT -> amountUnits;
+            case NEW_DESTINATIONS -> newDestination ? 1 : 0;
+        };
+    }
+
+    private boolean isRecentDestination(long destinationCardId) {
+        for (int i = 0; i < recentCount; i++) {
+            if (recentDestinations[i] == destinationCardId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rememberDestination(long destinationCardId) {
+        if (recentDestinations.length == 0) {
+            return;
+        }
+        recentDestinations[nextRecent] = destinationCardId;
+        nextRecent = (nextRecent + 1) % recentDestinations.length;
+        recentCount = Math.min(recentCount + 1, recentDestinations.length);
+    }
+
+    // The slot stays in the ring and is reused in turn
+    private void forgetDestination(long destinationCardId) {
+        for (int i = 0; i < recentCount; i++) {
+            if (recentDestinations[i] == destinationCardId) {
+                recentDestinations[i] = FORGOTTEN;
+            }
+        }
+    }
+}
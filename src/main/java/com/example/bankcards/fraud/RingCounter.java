@@ -0,0 +1,54 @@
+package com.example.bankcards.fraud;
+
+import java.util.Arrays;
+
+/**
+ * Sum over a sliding window kept in a fixed number of time buckets, so memory does not
+ * grow with traffic. The window slides one bucket at a time. Not thread-safe.
+ */
+class RingCounter {
+
+    private final long bucketNanos;
+    private final long[] values;
+    // Absolute number of the time bucket each slot currently holds
+    private final long[] buckets;
+
+    RingCounter(long windowNanos, int bucketCount) {
+        this.bucketNanos = Math.max(1, windowNanos / bucketCount);
+        this.values = new long[bucketCount];
+        this.buckets = new long[bucketCount];
+        Arrays.fill(buckets, Long.MIN_VALUE);
+    }
+
+    long bucketOf(long nowNanos) {
+        return Math.floorDiv(nowNanos, bucketNanos);
+    }
+
+    long sum(long nowNanos) {
+        long oldest = bucketOf(nowNanos) - values.length;
+        long total = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (buckets[i] > oldest) {
+                total += values[i];
+            }
+        }
+        return total;
+    }
+
+    void add(long bucket, long value) {
+        int slot = (int) Math.floorMod(bucket, values.length);
+        if (buckets[slot] != bucket) {
+            buckets[slot] = bucket;
+            values[slot] = 0;
+        }
+        values[slot] += value;
+    }
+
+    // Take back what add recorded, unless its bucket has been reused since
+    void subtract(long bucket, long value) {
+        int slot = (int) Math.floorMod(bucket, values.length);
+        if (buckets[slot] == bucket) {
+            values[slot] -= value;
+        }
+    }
+}
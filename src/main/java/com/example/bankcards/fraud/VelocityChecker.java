@@ -0,0 +1,143 @@
+package com.example.bankcards.fraud;
+
+import com.example.bankcards.exception.CardException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Screens transfers against the velocity rules of their source card before they commit,
+ * from counters held in memory only: no database access. Counters are per node, so with
+ * several nodes each enforces the limits for the transfers it serves.
+ */
+@Slf4j
+public class VelocityChecker {
+
+    private final boolean enabled;
+    private final List<VelocityProperties.Rule> rules;
+    private final int bucketsPerWindow;
+    private final int knownDestinations;
+    private final long latencyBudgetNanos;
+    private final Cache<Long, CardVelocity> cards;
+    private final LongSupplier clock;
+
+    private final Timer allowedTimer;
+    private final Timer deniedTimer;
+    private final Counter budgetExceeded;
+    private final Map<String, Counter> deniedByRule = new HashMap<>();
+
+    public VelocityChecker(VelocityProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    VelocityChecker(VelocityProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.enabled = properties.enabled() && !properties.rules().isEmpty();
+        this.rules = List.copyOf(properties.rules());
+        this.bucketsPerWindow = properties.bucketsPerWindow();
+        this.knownDestinations = properties.knownDestinations();
+        this.latencyBudgetNanos = properties.latencyBudget().toNanos();
+        this.clock = clock;
+
+        // Forgetting a card before its longest window has passed would forgive its history
+        Duration longestWindow = rules.stream()
+                .map(VelocityProperties.Rule::window)
+                .max(Duration::compareTo)
+                .orElse(Duration.ZERO);
+        Duration idleExpiry = properties.idleExpiry().compareTo(longestWindow) < 0 ? longestWindow : properties.idleExpiry();
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(properties.maxCards())
+                .expireAfterAccess(idleExpiry)
+                .build();
+
+        this.allowedTimer = decisionTimer("allow", properties.latencyBudget(), meterRegistry);
+        this.deniedTimer = decisionTimer("deny", properties.latencyBudget(), meterRegistry);
+        this.budgetExceeded = Counter.builder("fraud.velocity.budget.exceeded")
+                .description("Velocity decisions that took longer than the latency budget")
+                .register(meterRegistry);
+        for (VelocityProperties.Rule rule : rules) {
+            deniedByRule.put(rule.name(), Counter.builder("fraud.velocity.denied")
+                    .description("Transfers denied by a velocity rule")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("fraud.velocity.cards", cards, Cache::estimatedSize)
+                .description("Cards with velocity counters in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit a transfer, counting it against its source card, or reject it. Call while
+     * holding the source card's row lock; a transfer that rolls back is taken back out.
+     *
+     * @throws CardException if a velocity rule denies the transfer
+     */
+    public void screen(Long sourceCardId, Long destinationCardId, BigDecimal amount) {
+        if (!enabled) {
+            return;
+        }
+
+        long start = clock.getAsLong();
+        CardVelocity velocity = cards.get(sourceCardId, id -> new CardVelocity(rules, bucketsPerWindow, knownDestinations));
+        CardVelocity.Outcome outcome = velocity.tryRecord(start, destinationCardId,
+                VelocityProperties.toMinorUnits(amount, RoundingMode.UP));
+        long elapsed = clock.getAsLong() - start;
+        if (elapsed > latencyBudgetNanos) {
+            budgetExceeded.increment();
+        }
+
+        if (outcome.deniedBy() != null) {
+            deniedTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            deniedByRule.get(outcome.deniedBy().name()).increment();
+            log.info("Transfer from card {} denied by velocity rule {}", sourceCardId, outcome.deniedBy().name());
+            throw new CardException(CardException.Reason.VELOCITY_LIMIT_EXCEEDED, denialMessage(outcome.deniedBy()));
+        }
+        allowedTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        revertOnRollback(velocity, outcome.recorded());
+    }
+
+    private static String denialMessage(VelocityProperties.Rule rule) {
+        String reason = switch (rule.metric()) {
+            case TRANSFER_COUNT -> "too many transfers from this card";
+            case AMOUNT -> "too much transferred from this card";
+            case NEW_DESTINATIONS -> "too many transfers to new destinations from this card";
+        };
+        return "Transfer declined by velocity rule " + rule.name() + ": " + reason + ", please try again later";
+    }
+
+    private static void revertOnRollback(CardVelocity velocity, CardVelocity.Recorded recorded) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    velocity.revert(recorded);
+                }
+            }
+        });
+    }
+
+    private static Timer decisionTimer(String outcome, Duration latencyBudget, MeterRegistry meterRegistry) {
+        return Timer.builder("fraud.velocity.decision")
+                .description("Time to screen a transfer against the velocity rules")
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(latencyBudget)
+                .register(meterRegistry);
+    }
+}
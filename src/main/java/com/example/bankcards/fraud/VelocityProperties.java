@@ -0,0 +1,54 @@
+package com.example.bankcards.fraud;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Velocity rules screening transfers per source card, under {@code app.fraud.velocity}.
+ */
+@ConfigurationProperties(prefix = "app.fraud.velocity")
+public record VelocityProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000000") long maxCards,
+        @DefaultValue("2h") Duration idleExpiry,
+        @DefaultValue("12") int bucketsPerWindow,
+        @DefaultValue("16") int knownDestinations,
+        @DefaultValue("1ms") Duration latencyBudget,
+        @DefaultValue List<Rule> rules) {
+
+    public enum Metric {
+        // Transfers from the card
+        TRANSFER_COUNT,
+        // Sum of the amounts transferred from the card
+        AMOUNT,
+        // Transfers to a card that is not among the card's recent destinations
+        NEW_DESTINATIONS
+    }
+
+    /**
+     * A transfer is denied if it would take {@code metric} over {@code window} above {@code limit}.
+     */
+    public record Rule(String name, Metric metric, Duration window, BigDecimal limit) {
+
+        public Rule {
+            if (name == null || name.isBlank() || metric == null || window == null || window.isZero() || window.isNegative()
+                    || limit == null || limit.signum() < 0) {
+                throw new IllegalArgumentException("Velocity rules need a name, a metric, a positive window and a limit");
+            }
+        }
+
+        // Amounts are counted in minor units
+        long limitUnits() {
+            return metric == Metric.AMOUNT ? toMinorUnits(limit, RoundingMode.DOWN) : limit.longValue();
+        }
+    }
+
+    static long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.movePointRight(2).setScale(0, roundingMode).longValueExact();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bankcards.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits requests of one endpoint group up to the current {@link VegasLimit}. Writes
+ * may only fill a share of it, so that reads keep getting through when the limit shrinks.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        READ,
+        WRITE
+    }
+
+    private final String group;
+    private final VegasLimit limit;
+    private final double writeShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter readRejected;
+    private final Counter writeRejected;
+    private final Counter limitIncreased;
+    private final Counter limitDecreased;
+
+    public AdaptiveConcurrencyLimiter(String group, VegasLimit limit, double writeShare, MeterRegistry meterRegistry) {
+        this.group = group;
+        this.limit = limit;
+        this.writeShare = writeShare;
+
+        Gauge.builder("concurrency.limit", limit, VegasLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the concurrency limiter")
+                .tag("group", group)
+                .register(meterRegistry);
+        this.readRejected = rejectedCounter(group, Priority.READ, meterRegistry);
+        this.writeRejected = rejectedCounter(group, Priority.WRITE, meterRegistry);
+        this.limitIncreased = limitChangeCounter(group, "increase", meterRegistry);
+        this.limitDecreased = limitChangeCounter(group, "decrease", meterRegistry);
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        int currentLimit = limit.getLimit();
+        int max = priority == Priority.READ ? currentLimit : Math.max(1, (int) (currentLimit * writeShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                (priority == Priority.READ ? readRejected : writeRejected).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and feed its latency into the limit.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int finishedInFlight = inFlight.getAndDecrement();
+        int before = limit.getLimit();
+        int after = limit.onSample(rttNanos, finishedInFlight, dropped);
+        if (after > before) {
+            limitIncreased.increment();
+        } else if (after < before) {
+            limitDecreased.increment();
+            log.debug("Concurrency limit of {} lowered to {}", group, after);
+        }
+    }
+
+    /**
+     * Release a request whose latency says nothing about load, such as a started event stream.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private static Counter rejectedCounter(String group, Priority priority, MeterRegistry meterRegistry) {
+        return Counter.builder("concurrency.rejected")
+                .description("Requests rejected by the concurrency limiter")
+                .tag("group", group)
+                .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static Counter limitChangeCounter(String group, String direction, MeterRegistry meterRegistry) {
+        return Counter.builder("concurrency.limit.changes")
+                .description("Adjustments of the adaptive concurrency limit")
+                .tag("group", group)
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps buckets on this node only. The map is bounded and forgets buckets that have not
+ * been used for a while; a forgotten bucket comes back full, which is what it would have
+ * refilled to anyway once the expiry is longer than capacity / refill rate.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier clock;
+
+    public InMemoryRateLimitStore(long maxKeys, Duration idleExpiry, MeterRegistry meterRegistry) {
+        this(maxKeys, idleExpiry, meterRegistry, System::nanoTime);
+    }
+
+    InMemoryRateLimitStore(long maxKeys, Duration idleExpiry, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.clock = clock;
+
+        Gauge.builder("rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Token buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean tryConsume(String key, RateLimitProperties.Rule rule) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(rule.capacity(), now));
+        return bucket.tryConsume(rule.capacity(), rule.refillPerSecond(), now);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bankcards.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps buckets in the {@code rate_limit_buckets} table so that all nodes share them.
+ * Each attempt is a single upsert that refills and takes a token on the row atomically,
+ * which costs one round trip per limited request. If the database cannot be reached,
+ * requests are let through.
+ */
+@Slf4j
+public class PostgresRateLimitStore implements RateLimitStore {
+
+    private static final String REFILLED = "LEAST(:capacity, b.tokens + EXTRACT(EPOCH FROM now() - b.refilled_at) * :refillPerSecond)";
+
+    // A new bucket starts full, less the token of the request that creates it
+    static final String NEW_BUCKET = "(:key, :capacity - 1, now(), TRUE)";
+
+    // Refill for the time since the last attempt, then take a token if there is a whole one
+    static final String REFILL_AND_TAKE = """
+            tokens = CASE WHEN %1$s >= 1 THEN %1$s - 1 ELSE %1$s END,
+            refilled_at = now(),
+            allowed = %1$s >= 1""".formatted(REFILLED);
+
+    private static final String CONSUME = """
+            INSERT INTO rate_limit_buckets AS b (bucket_key, tokens, refilled_at, allowed)
+            VALUES %s
+            ON CONFLICT (bucket_key) DO UPDATE
+            SET %s
+            RETURNING allowed
+            """.formatted(NEW_BUCKET, REFILL_AND_TAKE);
+
+    private static final String DELETE_IDLE = "DELETE FROM rate_limit_buckets WHERE refilled_at < now() - :idleSeconds * INTERVAL '1 second'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Duration idleExpiry;
+    // Whether the last attempt failed, so that an outage is logged once rather than per request
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    public PostgresRateLimitStore(NamedParameterJdbcTemplate jdbcTemplate, Duration idleExpiry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleExpiry = idleExpiry;
+    }
+
+    @Override
+    public boolean tryConsume(String key, RateLimitProperties.Rule rule) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("capacity", (double) rule.capacity())
+                .addValue("refillPerSecond", rule.refillPerSecond());
+        boolean allowed;
+        try {
+            allowed = Boolean.TRUE.equals(jdbcTemplate.queryForObject(CONSUME, parameters, Boolean.class));
+        } catch (RuntimeException e) {
+            // Rate limiting must not take the API down with the database; fail open
+            if (failing.compareAndSet(false, true)) {
+                log.warn("Could not check rate limit {}, letting requests through until the database is back", key, e);
+            } else {
+                log.debug("Could not check rate limit {}, letting the request through: {}", key, e.toString());
+            }
+            return true;
+        }
+        if (failing.compareAndSet(true, false)) {
+            log.info("Rate limits are checked again");
+        }
+        return allowed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval-ms:60000}")
+    public void deleteIdleBuckets() {
+        int deleted = jdbcTemplate.update(DELETE_IDLE, new MapSqlParameterSource("idleSeconds", idleExpiry.toSeconds()));
+        log.debug("Deleted {} idle rate limit buckets", deleted);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bankcards.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-user rate limits under {@code app.rate-limit}. A request is counted against the first
+ * rule matching its method and path.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("memory") Store store,
+        @DefaultValue("100000") long maxKeys,
+        @DefaultValue("10m") Duration idleExpiry,
+        @DefaultValue List<Rule> rules) {
+
+    public enum Store {
+        MEMORY,
+        POSTGRES
+    }
+
+    /**
+     * @param method HTTP method, or any method when empty
+     * @param path   path pattern below the context path, e.g. {@code /cards/**}
+     */
+    public record Rule(String name, String method, String path, long capacity, double refillPerSecond) {
+
+        public Rule {
+            if (name == null || name.isBlank() || path == null || path.isBlank()) {
+                throw new IllegalArgumentException("Rate limit rules need a name and a path");
+            }
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit rule " + name + " needs a capacity of at least 1 and a positive refill rate");
+            }
+        }
+    }
+}
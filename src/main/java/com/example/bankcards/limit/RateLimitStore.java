@@ -0,0 +1,15 @@
+package com.example.bankcards.limit;
+
+/**
+ * Holds the token buckets of {@link RateLimitProperties.Rule rate limit rules}, one per user and rule.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one token from the bucket of {@code key} under {@code rule}, creating a full bucket
+     * if there is none yet.
+     *
+     * @return whether the request may proceed
+     */
+    boolean tryConsume(String key, RateLimitProperties.Rule rule);
+}
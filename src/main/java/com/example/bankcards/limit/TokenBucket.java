@@ -0,0 +1,38 @@
+package com.example.bankcards.limit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The bucket is refilled lazily on each attempt from the time
+ * elapsed since the last one, so idle buckets cost nothing.
+ */
+public class TokenBucket {
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, long nowNanos) {
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Take one token if there is one, after refilling at {@code refillPerSecond} up to {@code capacity}.
+     */
+    public boolean tryConsume(long capacity, double refillPerSecond, long nowNanos) {
+        while (true) {
+            State current = state.get();
+            // Concurrent callers may pass slightly older timestamps; never move the bucket back in time
+            long elapsed = Math.max(0, nowNanos - current.refilledAtNanos());
+            double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerSecond / 1_000_000_000d);
+            if (tokens < 1) {
+                return false;
+            }
+            State next = new State(tokens - 1, Math.max(nowNanos, current.refilledAtNanos()));
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bankcards.limit;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TCP Vegas applied to request concurrency. The lowest latency seen approximates the
+ * latency without queueing; from it and the current latency follows how many requests
+ * are queued somewhere downstream (Tomcat, Hikari, Postgres). Few queued requests grow
+ * the limit, many shrink it, failures shrink it multiplicatively.
+ */
+public class VegasLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private double limit;
+    private long noLoadRttNanos;
+    private int samplesUntilProbe;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+        this.samplesUntilProbe = nextProbe();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Update the limit from a finished request.
+     *
+     * @param rttNanos latency of the request
+     * @param inFlight requests in flight when it finished, itself included
+     * @param dropped  whether it failed in a way that indicates overload
+     * @return the new limit
+     */
+    public synchronized int onSample(long rttNanos, int inFlight, boolean dropped) {
+        // The no-load latency drifts, e.g. as tables grow; forget it from time to time and measure again
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = nextProbe();
+            noLoadRttNanos = 0;
+        }
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+        }
+
+        double newLimit;
+        if (dropped) {
+            newLimit = limit * BACKOFF_RATIO;
+        } else {
+            double queued = Math.ceil(limit * (1 - (double) noLoadRttNanos / Math.max(rttNanos, 1)));
+            double step = Math.max(1, Math.log10(limit));
+            if (queued <= 3 * step) {
+                // Only grow when the limit is actually used, otherwise an idle service ends up at max-limit
+                newLimit = inFlight * 2 >= limit ? limit + step : limit;
+            } else if (queued >= 6 * step) {
+                newLimit = limit - step;
+            } else {
+                newLimit = limit;
+            }
+        }
+
+        limit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+        return (int) limit;
+    }
+
+    private int nextProbe() {
+        return probeInterval + ThreadLocalRandom.current().nextInt(probeInterval / 2 + 1);
+    }
+}
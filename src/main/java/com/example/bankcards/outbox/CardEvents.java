@@ -0,0 +1,34 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.Card;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Card events published through the outbox. The record name is the event type, the
+ * fields are the payload; never include the card number.
+ */
+public final class CardEvents {
+
+    public static final String AGGREGATE_TYPE = "card";
+
+    public record CardCreated(Long cardId, Long ownerId, String maskedNumber, LocalDate expirationDate, BigDecimal balance) {
+
+        public static CardCreated of(Card card) {
+            return new CardCreated(card.getId(), card.getOwner().getId(), card.getMaskedNumber(),
+                    card.getExpirationDate(), card.getBalance());
+        }
+    }
+
+    public record CardStatusChanged(Long cardId, Long ownerId, Card.CardStatus previousStatus, Card.CardStatus status) {
+    }
+
+    // Published for the source card
+    public record TransferCompleted(Long sourceCardId, Long destinationCardId, Long ownerId, BigDecimal amount,
+                                    BigDecimal sourceBalance, BigDecimal destinationBalance) {
+    }
+
+    private CardEvents() {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.outbox;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps published messages in memory, for tests and local runs.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        messages.addAll(batch);
+    }
+
+    public List<OutboxMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    public void clear() {
+        messages.clear();
+    }
+}
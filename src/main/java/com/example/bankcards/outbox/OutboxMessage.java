@@ -0,0 +1,18 @@
+package com.example.bankcards.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row as handed to an {@link OutboxSink}. Ids grow with insertion order, so
+ * consumers can deduplicate redeliveries and order the events of one aggregate by id.
+ */
+public record OutboxMessage(
+        long id,
+        String aggregateType,
+        long aggregateId,
+        String eventType,
+        @JsonRawValue String payload,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,155 @@
+package com.example.bankcards.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves outbox rows to the {@link OutboxSink}. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, published, and deleted (or archived) in one transaction,
+ * so several nodes can relay side by side and a failed publish leaves the batch in place.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM_BATCH = """
+            SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at
+            FROM outbox
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """;
+    private static final String ARCHIVE = """
+            INSERT INTO outbox_archive (id, aggregate_type, aggregate_id, event_type, payload, created_at, published_at)
+            SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at, LOCALTIMESTAMP
+            FROM outbox WHERE id IN (:ids)
+            """;
+    private static final String DELETE = "DELETE FROM outbox WHERE id IN (:ids)";
+    // Ids follow insertion order, so the oldest pending row is found through the primary key
+    private static final String OLDEST_PENDING = "SELECT created_at FROM outbox ORDER BY id LIMIT 1";
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (resultSet, rowNum) -> new OutboxMessage(
+            resultSet.getLong("id"),
+            resultSet.getString("aggregate_type"),
+            resultSet.getLong("aggregate_id"),
+            resultSet.getString("event_type"),
+            resultSet.getString("payload"),
+            resultSet.getObject("created_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final boolean archive;
+
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryDelayTimer;
+    private volatile double lagSeconds;
+
+    public OutboxRelay(NamedParameterJdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       OutboxSink sink,
+                       int batchSize,
+                       int maxBatchesPerPoll,
+                       boolean archive,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.archive = archive;
+
+        this.publishedCounter = Counter.builder("outbox.published")
+                .description("Outbox events accepted by the sink")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("outbox.publish.failures")
+                .description("Outbox batches the sink failed to accept; they are retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.batch")
+                .description("Time to claim, publish and remove one outbox batch")
+                .register(meterRegistry);
+        this.deliveryDelayTimer = Timer.builder("outbox.delivery.delay")
+                .description("Time from writing an event to the outbox until the sink accepted it")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", this, relay -> relay.lagSeconds)
+                .description("Age of the oldest event still in the outbox, as of the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            // Keep going while batches come back full, but give the scheduler back now and then
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                if (relayBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.warn("Outbox relay failed, the batch stays in the outbox", e);
+        }
+        updateLag();
+    }
+
+    /**
+     * Relay one batch.
+     *
+     * @return the number of published events
+     */
+    int relayBatch() {
+        Integer published = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<OutboxMessage> messages = jdbcTemplate.query(CLAIM_BATCH, Map.of("batchSize", batchSize), MESSAGE_MAPPER);
+            if (messages.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                sink.publish(messages);
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink rejected a batch of " + messages.size() + " events", e);
+            }
+
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids", messages.stream().map(OutboxMessage::id).toList());
+            if (archive) {
+                jdbcTemplate.update(ARCHIVE, ids);
+            }
+            jdbcTemplate.update(DELETE, ids);
+
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxMessage message : messages) {
+                deliveryDelayTimer.record(Duration.between(message.createdAt(), now));
+            }
+            publishedCounter.increment(messages.size());
+            return messages.size();
+        }));
+        return published == null ? 0 : published;
+    }
+
+    private void updateLag() {
+        try {
+            List<LocalDateTime> oldest = jdbcTemplate.getJdbcTemplate()
+                    .query(OLDEST_PENDING, (resultSet, rowNum) -> resultSet.getObject(1, LocalDateTime.class));
+            lagSeconds = oldest.isEmpty() ? 0 : Math.max(0, Duration.between(oldest.get(0), LocalDateTime.now()).toMillis() / 1000d);
+        } catch (Exception e) {
+            log.debug("Could not measure outbox lag", e);
+        }
+    }
+}
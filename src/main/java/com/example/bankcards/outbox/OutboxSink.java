@@ -0,0 +1,15 @@
+package com.example.bankcards.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay, e.g. a message broker. Delivery is at least once: a
+ * batch whose publish throws stays in the outbox and is offered again, whole.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publish a batch in id order; return only once the destination has accepted all of it.
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
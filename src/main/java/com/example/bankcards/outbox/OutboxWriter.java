@@ -0,0 +1,45 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.OutboxEntry;
+import com.example.bankcards.repository.OutboxEntryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Adds events to the outbox. Only callable inside the transaction that makes the change,
+ * so an event is stored if and only if that change commits.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEntryRepository outboxEntryRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEntryRepository outboxEntryRepository, ObjectMapper objectMapper) {
+        this.outboxEntryRepository = outboxEntryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param payload an event record, whose simple class name becomes the event type
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Long aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox event " + payload.getClass().getSimpleName(), e);
+        }
+
+        outboxEntryRepository.save(OutboxEntry.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(payload.getClass().getSimpleName())
+                .payload(json)
+                .build());
+    }
+}
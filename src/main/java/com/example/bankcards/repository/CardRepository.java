@@ -1,27 +1,87 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.CardOwnerView;
+import com.example.bankcards.dto.CardVersion;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CardRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card> {
+public interface CardRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card>, CardSearchRepository {
 
     Page<Card> findAllByOwner(User owner, Pageable pageable);
 
-    long countByOwner(User owner);
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT c FROM Card c WHERE c.id = :id")
+    Optional<Card> findWithOwnerById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.bankcards.dto.CardVersion(c.owner.id, c.updatedAt) FROM Card c WHERE c.id = :id")
+    Optional<CardVersion> findVersionById(@Param("id") Long id);
+
+    // Joins only the owner's columns, so neither users nor their roles are loaded as entities
+    @Query("""
+            SELECT new com.example.bankcards.dto.CardOwnerView(
+                c.id, c.maskedNumber, o.id, o.username, c.expirationDate, c.status, c.balance)
+            FROM Card c JOIN c.owner o
+            WHERE c.id IN :ids
+            """)
+    List<CardOwnerView> findOwnerViewsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT c FROM Card c WHERE c.id = :id")
     Optional<Card> findCardForUpdate(@Param("id") Long cardId);
-}
\ No newline at end of file
+
+    // Forward-only cursor for exports: rows are fetched in chunks and bypass the second-level cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT c FROM Card c JOIN FETCH c.owner ORDER BY c.id")
+    Stream<Card> streamAllWithOwner();
+
+    /**
+     * Lock up to batchSize overdue active cards for expiration, in the caller's transaction.
+     * Rows locked by in-flight transfers are skipped and picked up by a later chunk.
+     */
+    @Query(value = """
+            SELECT id AS id, user_id AS ownerId FROM cards
+            WHERE status = 'ACTIVE' AND expiration_date < CURRENT_DATE
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OverdueCard> lockOverdueCards(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cards"))
+    @Query(value = "UPDATE cards SET status = 'EXPIRED', updated_at = LOCALTIMESTAMP WHERE id IN :ids", nativeQuery = true)
+    int expireCards(@Param("ids") Collection<Long> ids);
+
+    interface OverdueCard {
+
+        Long getId();
+
+        Long getOwnerId();
+    }
+}
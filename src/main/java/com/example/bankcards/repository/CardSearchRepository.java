@@ -0,0 +1,15 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardSummaryDto;
+import com.example.bankcards.entity.Card;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface CardSearchRepository {
+
+    /**
+     * The first {@code limit} matching cards in id order, selecting only the summary columns.
+     */
+    List<CardSummaryDto> findSummaries(Specification<Card> specification, int limit);
+}
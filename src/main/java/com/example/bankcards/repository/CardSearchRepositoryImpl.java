@@ -0,0 +1,38 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardSummaryDto;
+import com.example.bankcards.entity.Card;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class CardSearchRepositoryImpl implements CardSearchRepository {
+
+    private final EntityManager entityManager;
+
+    CardSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<CardSummaryDto> findSummaries(Specification<Card> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CardSummaryDto> query = cb.createQuery(CardSummaryDto.class);
+        Root<Card> card = query.from(Card.class);
+        // The owner's id is the user_id column, so no join
+        query.select(cb.construct(CardSummaryDto.class,
+                card.get("id"), card.get("maskedNumber"), card.get("owner").get("id"),
+                card.get("expirationDate"), card.get("status"), card.get("balance")));
+        Predicate predicate = specification.toPredicate(card, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(card.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
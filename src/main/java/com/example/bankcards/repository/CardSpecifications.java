@@ -0,0 +1,67 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardSearchRequest;
+import com.example.bankcards.entity.Card;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Composable filters for card search. Each one is a no-op when its argument is null.
+ */
+public final class CardSpecifications {
+
+    private CardSpecifications() {
+    }
+
+    public static Specification<Card> matching(CardSearchRequest request) {
+        return Specification.allOf(
+                ownedBy(request.getOwnerId()),
+                hasStatus(request.getStatus()),
+                expiresBetween(request.getExpiresFrom(), request.getExpiresTo()),
+                balanceBetween(request.getMinBalance(), request.getMaxBalance()),
+                lastFourIs(request.getLastFour()),
+                idAfter(request.getAfterId()));
+    }
+
+    public static Specification<Card> ownedBy(Long ownerId) {
+        return (root, query, cb) -> ownerId == null ? null : cb.equal(root.get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Card> hasStatus(Card.CardStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Card> expiresBetween(LocalDate from, LocalDate to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get("expirationDate"), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get("expirationDate"), from);
+            }
+            return to == null ? null : cb.lessThanOrEqualTo(root.get("expirationDate"), to);
+        };
+    }
+
+    public static Specification<Card> balanceBetween(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("balance"), min, max);
+            }
+            if (min != null) {
+                return cb.greaterThanOrEqualTo(root.get("balance"), min);
+            }
+            return max == null ? null : cb.lessThanOrEqualTo(root.get("balance"), max);
+        };
+    }
+
+    public static Specification<Card> lastFourIs(String lastFour) {
+        return (root, query, cb) -> lastFour == null ? null : cb.equal(root.get("lastFour"), lastFour);
+    }
+
+    public static Specification<Card> idAfter(Long afterId) {
+        return (root, query, cb) -> afterId == null ? null : cb.greaterThan(root.get("id"), afterId);
+    }
+}
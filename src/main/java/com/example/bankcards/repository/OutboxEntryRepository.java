@@ -0,0 +1,7 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.OutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxEntryRepository extends JpaRepository<OutboxEntry, Long> {
+}
@@ -2,13 +2,75 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Resolved on every authenticated request, so the result goes through the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // The card counter is synchronized on a query space of its own, so that maintaining it
+    // neither evicts users from the second-level cache nor bumps their version
+
+    /**
+     * Count one more card for the user unless they already have {@code maxCards}.
+     * Concurrent issuances for the same user queue on the row lock.
+     *
+     * @return 1 if the card may be issued, 0 if the user is at the limit
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_card_count"))
+    @Query(value = "UPDATE users SET card_count = card_count + 1 WHERE id = :id AND card_count < :maxCards", nativeQuery = true)
+    int incrementCardCount(@Param("id") Long id, @Param("maxCards") int maxCards);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_card_count"))
+    @Query(value = "UPDATE users SET card_count = card_count - 1 WHERE id = :id AND card_count > 0", nativeQuery = true)
+    int decrementCardCount(@Param("id") Long id);
+
+    /**
+     * Users whose counter differs from their number of cards, e.g. after cards were deleted
+     * by hand. Read without locks, so only candidates: see {@link #resetCardCount}.
+     */
+    @Query(value = """
+            SELECT id FROM users
+            WHERE card_count <> (SELECT COUNT(*) FROM cards WHERE cards.user_id = users.id)
+            ORDER BY id
+            """, nativeQuery = true)
+    List<Long> findIdsWithDriftedCardCount();
+
+    /**
+     * Take the row lock that issuances and deletions hold while they change the user's cards.
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockForCardCount(@Param("id") Long id);
+
+    /**
+     * Set the counter to the user's number of cards. Call after {@link #lockForCardCount} in the
+     * same transaction: the count then runs in a statement of its own, after any issuance in
+     * flight has committed, and sees its card.
+     *
+     * @return 1 if the counter was corrected
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_card_count"))
+    @Query(value = """
+            UPDATE users SET card_count = (SELECT COUNT(*) FROM cards WHERE cards.user_id = :id)
+            WHERE id = :id AND card_count <> (SELECT COUNT(*) FROM cards WHERE cards.user_id = :id)
+            """, nativeQuery = true)
+    int resetCardCount(@Param("id") Long id);
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.schema;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over every changelog file of this build, in path order. Hashing a few
+ * kilobytes of YAML is much cheaper than Liquibase checksumming each changeset
+ * under the changelog lock, and changes whenever any changeset does.
+ */
+public final class ChangelogHash {
+
+    private static final String LOCATION = "db/migration/";
+    private static final String PATTERN = "classpath*:" + LOCATION + "**/*.y*ml";
+
+    private ChangelogHash() {
+    }
+
+    public static String compute() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(PATTERN);
+            Arrays.sort(resources, Comparator.comparing(ChangelogHash::relativePath));
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Resource resource : resources) {
+                digest.update(relativePath(resource).getBytes(StandardCharsets.UTF_8));
+                try (InputStream inputStream = resource.getInputStream()) {
+                    digest.update(inputStream.readAllBytes());
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading the changelog", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Independent of where the jar lives, so that every instance of a build computes the same hash
+    private static String relativePath(Resource resource) {
+        try {
+            String url = resource.getURL().toString();
+            return url.substring(url.lastIndexOf(LOCATION));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
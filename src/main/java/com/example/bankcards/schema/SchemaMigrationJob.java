@@ -0,0 +1,26 @@
+package com.example.bankcards.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * In migrate-only mode the migration has run by the time the context is ready; stop there.
+ */
+@Slf4j
+public class SchemaMigrationJob implements ApplicationRunner {
+
+    private final ConfigurableApplicationContext context;
+
+    public SchemaMigrationJob(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Migration finished, exiting");
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.schema;
+
+import java.util.Locale;
+
+/**
+ * How an instance treats the database schema at startup, set by {@code app.schema.mode}.
+ */
+public enum SchemaMode {
+    /**
+     * Run Liquibase, then serve requests. The default, and what a single instance wants.
+     */
+    MIGRATE,
+    /**
+     * Run Liquibase and exit; the migration job of a rollout.
+     */
+    MIGRATE_ONLY,
+    /**
+     * Skip Liquibase and only check that the last migration applied this build's changelog.
+     */
+    VERIFY;
+
+    public static final String PROPERTY = "app.schema.mode";
+
+    public String propertyValue() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static SchemaMode fromProperty(String value) {
+        if (value == null || value.isBlank()) {
+            return MIGRATE;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(PROPERTY + " must be migrate, migrate-only or verify, but was: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.bankcards.schema;
+
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.env.Environment;
+
+/**
+ * Records the schema mode of an AOT build next to the generated code. The beans that
+ * {@code app.schema.mode} switches on and off are fixed by that build, so
+ * {@link SchemaModeEnvironmentPostProcessor} refuses to start it in another mode.
+ */
+class SchemaModeAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    static final String BUILD_MODE_RESOURCE = "META-INF/bankcards/schema-mode.properties";
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Environment environment = beanFactory.getBean(Environment.class);
+        SchemaMode mode = SchemaMode.fromProperty(environment.getProperty(SchemaMode.PROPERTY));
+        return (generationContext, beanFactoryInitializationCode) -> {
+            generationContext.getGeneratedFiles().addResourceFile(BUILD_MODE_RESOURCE,
+                    SchemaMode.PROPERTY + "=" + mode.propertyValue() + "\n");
+            generationContext.getRuntimeHints().resources().registerPattern(BUILD_MODE_RESOURCE);
+        };
+    }
+}
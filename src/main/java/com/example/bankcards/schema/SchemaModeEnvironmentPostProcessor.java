@@ -0,0 +1,90 @@
+package com.example.bankcards.schema;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Translates {@code app.schema.mode} into the Spring properties it implies, ahead of
+ * auto-configuration: verify turns Liquibase off, migrate-only starts without a web
+ * server or background jobs. An AOT build starts only in the mode it was built for,
+ * see {@link SchemaModeAotProcessor}.
+ */
+public class SchemaModeEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String PROPERTY_SOURCE = "schemaMode";
+
+    private final boolean aotGenerated;
+    private final Resource buildMode;
+
+    public SchemaModeEnvironmentPostProcessor() {
+        this(AotDetector.useGeneratedArtifacts(), new ClassPathResource(SchemaModeAotProcessor.BUILD_MODE_RESOURCE));
+    }
+
+    SchemaModeEnvironmentPostProcessor(boolean aotGenerated, Resource buildMode) {
+        this.aotGenerated = aotGenerated;
+        this.buildMode = buildMode;
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        SchemaMode mode = SchemaMode.fromProperty(environment.getProperty(SchemaMode.PROPERTY));
+        if (aotGenerated) {
+            checkBuildMode(mode);
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        // Normalized, so that conditions can match on it
+        properties.put(SchemaMode.PROPERTY, mode.propertyValue());
+        switch (mode) {
+            case VERIFY -> properties.put("spring.liquibase.enabled", "false");
+            case MIGRATE_ONLY -> {
+                properties.put("spring.main.web-application-type", "none");
+                // No scheduled job may run, even once, before the job exits
+                properties.put("app.scheduling.enabled", "false");
+                // Migrations only ever talk to the primary
+                properties.put("app.datasource.replicas.enabled", "false");
+                properties.put("app.card.expiration-sweeper.enabled", "false");
+                properties.put("app.card.count-reconciler.enabled", "false");
+                properties.put("app.outbox.relay.enabled", "false");
+                properties.put("app.cache.invalidation.enabled", "false");
+            }
+            case MIGRATE -> {
+            }
+        }
+
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE, properties));
+    }
+
+    /**
+     * The conditions on the migration job, the verifier, Liquibase and scheduling were
+     * evaluated by the AOT build; another mode at runtime would change the properties
+     * but not the beans.
+     */
+    private void checkBuildMode(SchemaMode mode) {
+        if (!buildMode.exists()) {
+            return;
+        }
+        SchemaMode built;
+        try {
+            built = SchemaMode.fromProperty(PropertiesLoaderUtils.loadProperties(buildMode).getProperty(SchemaMode.PROPERTY));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the schema mode of the AOT build", e);
+        }
+        if (built != mode) {
+            throw new IllegalStateException(SchemaMode.PROPERTY + " is " + mode.propertyValue()
+                    + ", but this AOT build was made for " + built.propertyValue()
+                    + "; build with SCHEMA_MODE=" + mode.propertyValue() + " or start without spring.aot.enabled");
+        }
+    }
+}
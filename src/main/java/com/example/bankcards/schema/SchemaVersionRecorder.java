@@ -0,0 +1,18 @@
+package com.example.bankcards.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stores the hash of the changelog once Liquibase has applied it, for instances
+ * that start in verify mode.
+ */
+@Slf4j
+public class SchemaVersionRecorder {
+
+    public SchemaVersionRecorder(JdbcTemplate jdbcTemplate) {
+        String hash = ChangelogHash.compute();
+        jdbcTemplate.update("UPDATE schema_version SET changelog_hash = ?, applied_at = CURRENT_TIMESTAMP WHERE id = 1", hash);
+        log.info("Schema migrated to changelog {}", hash);
+    }
+}
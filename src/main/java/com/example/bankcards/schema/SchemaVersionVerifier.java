@@ -0,0 +1,32 @@
+package com.example.bankcards.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Fails startup unless the last migration run applied exactly the changelog of this
+ * build. One primary-key read replaces Liquibase's lock and per-changeset checksums.
+ */
+@Slf4j
+public class SchemaVersionVerifier {
+
+    public SchemaVersionVerifier(JdbcTemplate jdbcTemplate) {
+        String expected = ChangelogHash.compute();
+
+        List<String> applied;
+        try {
+            applied = jdbcTemplate.queryForList("SELECT changelog_hash FROM schema_version WHERE id = 1", String.class);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Cannot read schema_version; run the migration job (app.schema.mode=migrate-only) first", e);
+        }
+
+        if (applied.isEmpty() || !expected.equals(applied.get(0))) {
+            throw new IllegalStateException("Database schema is at changelog " + (applied.isEmpty() ? "<none>" : applied.get(0))
+                    + " but this build expects " + expected + "; run the migration job (app.schema.mode=migrate-only) first");
+        }
+        log.info("Schema verified at changelog {}", expected);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.security;
+
+import java.util.Collection;
+
+/**
+ * Who may read a card. Shared by the servlet API and the reactive read module
+ * so both apply exactly the same rule.
+ */
+public final class CardAccessPolicy {
+
+    public static final String ADMIN_ROLE = "ADMIN";
+    public static final String ACCESS_DENIED_MESSAGE = "You don't have permission to access this card";
+
+    private CardAccessPolicy() {
+    }
+
+    public static boolean isAdmin(Collection<String> roleNames) {
+        return roleNames.contains(ADMIN_ROLE);
+    }
+
+    /**
+     * Admins may access every card, everyone else only their own.
+     */
+    public static boolean canAccess(Long cardOwnerId, Long userId, Collection<String> roleNames) {
+        return isAdmin(roleNames) || cardOwnerId.equals(userId);
+    }
+
+    /**
+     * Same rule keyed by username, which is unique, for callers that only have the authenticated principal.
+     */
+    public static boolean canAccess(String cardOwnerUsername, String username, Collection<String> roleNames) {
+        return isAdmin(roleNames) || cardOwnerUsername.equals(username);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.bankcards.security;
 
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.JwtTokenUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,11 +24,20 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserRepository userRepository;
+    private final Timer parseTimer;
+    private final Timer userLookupTimer;
 
     public JwtTokenFilter(JwtTokenUtil jwtTokenUtil,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          MeterRegistry meterRegistry) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.userRepository = userRepository;
+        this.parseTimer = Timer.builder("auth.jwt.parse")
+                .description("Time to verify a bearer token and extract its subject")
+                .register(meterRegistry);
+        this.userLookupTimer = Timer.builder("auth.user.lookup")
+                .description("Time to load the authenticated user by the token subject")
+                .register(meterRegistry);
     }
 
     @Override
@@ -42,15 +53,15 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
 
         final String token = header.substring(7);
-        final String username = jwtTokenUtil.getUsernameFromToken(token);
+        final String username = parseTimer.record(() -> jwtTokenUtil.getUsernameFromToken(token));
         if (username == null || SecurityContextHolder.getContext().getAuthentication() != null) {
             chain.doFilter(request, response);
             return;
         }
 
-        UserDetails userDetails = userRepository
+        UserDetails userDetails = userLookupTimer.record(() -> userRepository
             .findByUsername(username)
-            .orElse(null);
+            .orElse(null));
 
         if (userDetails == null || !jwtTokenUtil.validateToken(token, userDetails)) {
             chain.doFilter(request, response);
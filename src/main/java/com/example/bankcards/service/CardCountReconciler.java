@@ -0,0 +1,54 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Brings the per-user card counters that enforce the card limit back in line with the
+ * cards table. The application keeps them exact; drift comes from changes made outside it.
+ * Each user is corrected in a transaction of its own that first takes the user's row lock,
+ * so a card issued meanwhile is either counted or waits for the correction.
+ */
+@Service
+@ConditionalOnProperty(name = "app.card.count-reconciler.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CardCountReconciler {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter correctedCounter;
+
+    public CardCountReconciler(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.correctedCounter = Counter.builder("cards.count.corrected")
+                .description("Users whose card counter had drifted and was corrected")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.card.count-reconciler.cron:0 35 0 * * *}")
+    public void reconcile() {
+        int corrected = 0;
+        for (Long userId : userRepository.findIdsWithDriftedCardCount()) {
+            Integer updated = transactionTemplate.execute(status -> {
+                userRepository.lockForCardCount(userId);
+                return userRepository.resetCardCount(userId);
+            });
+            corrected += updated;
+        }
+        correctedCounter.increment(corrected);
+        if (corrected > 0) {
+            log.warn("Corrected the card counter of {} users", corrected);
+        } else {
+            log.info("Card counters are consistent");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardChangedEvent;
+import com.example.bankcards.dto.CardDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed card changes to the owners' open event streams.
+ * Idle streams hold no thread: writes happen on the task executor only while
+ * a subscriber has something buffered.
+ */
+@Component
+@Slf4j
+public class CardEventBus {
+
+    private final Map<String, Set<CardEventSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Executor executor;
+    private final Counter droppedCounter;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+
+    public CardEventBus(@Qualifier("applicationTaskExecutor") Executor executor,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.card.events.buffer-size:32}") int bufferSize,
+                        @Value("${app.card.events.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.droppedCounter = Counter.builder("cards.events.dropped")
+                .description("Card changes dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("cards.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open card event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open an event stream for the user's cards
+     */
+    public SseEmitter subscribe(String username) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        CardEventSubscription subscription = new CardEventSubscription(username, emitter, bufferSize);
+
+        subscriptions.computeIfAbsent(username, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        // Commits the response headers right away instead of with the first change
+        subscription.requestHeartbeat();
+        scheduleDrain(subscription);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCardChanged(CardChangedEvent event) {
+        publish(event.ownerUsername(), event.card());
+    }
+
+    void publish(String username, CardDto card) {
+        Set<CardEventSubscription> userSubscriptions = subscriptions.get(username);
+        if (userSubscriptions == null) {
+            return;
+        }
+
+        for (CardEventSubscription subscription : userSubscriptions) {
+            if (subscription.offer(card)) {
+                droppedCounter.increment();
+            }
+            scheduleDrain(subscription);
+        }
+    }
+
+    // Keeps proxies and load balancers from closing idle streams
+    @Scheduled(fixedDelayString = "${app.card.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (Set<CardEventSubscription> userSubscriptions : subscriptions.values()) {
+            for (CardEventSubscription subscription : userSubscriptions) {
+                subscription.requestHeartbeat();
+                scheduleDrain(subscription);
+            }
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void scheduleDrain(CardEventSubscription subscription) {
+        if (!subscription.isClosed() && subscription.tryStartDrain()) {
+            executor.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(CardEventSubscription subscription) {
+        try {
+            subscription.sendPending();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+            log.debug("Closing card event stream of {}: {}", subscription.getUsername(), e.getMessage());
+            unsubscribe(subscription);
+            subscription.getEmitter().completeWithError(e);
+        } finally {
+            subscription.finishDrain();
+        }
+
+        // A change offered while this drain was finishing would otherwise wait for the next one
+        if (subscription.hasPending()) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private void unsubscribe(CardEventSubscription subscription) {
+        if (!subscription.close()) {
+            return;
+        }
+
+        subscriptions.computeIfPresent(subscription.getUsername(), (username, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+        subscriberCount.decrementAndGet();
+    }
+}
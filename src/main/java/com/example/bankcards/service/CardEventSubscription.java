@@ -0,0 +1,103 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open event stream. Changes wait in a bounded buffer until a drain task writes them,
+ * so a slow client only ever costs {@code capacity} buffered cards and no thread while idle.
+ */
+class CardEventSubscription {
+
+    private final String username;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Deque<CardDto> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean heartbeatDue;
+
+    CardEventSubscription(String username, SseEmitter emitter, int capacity) {
+        this.username = username;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Buffer a change, dropping the oldest one when the buffer is full.
+     *
+     * @return whether a change was dropped
+     */
+    synchronized boolean offer(CardDto card) {
+        boolean dropped = false;
+        if (buffer.size() >= capacity) {
+            buffer.pollFirst();
+            dropped = true;
+        }
+        buffer.addLast(card);
+        return dropped;
+    }
+
+    void requestHeartbeat() {
+        heartbeatDue = true;
+    }
+
+    synchronized boolean hasPending() {
+        return heartbeatDue || !buffer.isEmpty();
+    }
+
+    boolean tryStartDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void finishDrain() {
+        draining.set(false);
+    }
+
+    /**
+     * Write everything buffered so far. Called by at most one drain task at a time.
+     */
+    void sendPending() throws IOException {
+        if (heartbeatDue) {
+            heartbeatDue = false;
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        CardDto card;
+        while ((card = poll()) != null) {
+            emitter.send(SseEmitter.event()
+                    .name("card")
+                    .data(card, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * @return true only for the first call, so cleanup runs once however the stream ends
+     */
+    boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    private synchronized CardDto poll() {
+        return buffer.pollFirst();
+    }
+}
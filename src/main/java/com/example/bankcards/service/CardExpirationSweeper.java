@@ -0,0 +1,85 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.cache.CacheInvalidationPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves active cards past their expiration date to EXPIRED in small chunks,
+ * pausing between chunks so the sweep never holds many row locks at once.
+ * Each chunk records its CardStatusChanged events in the outbox as it commits.
+ */
+@Service
+@ConditionalOnProperty(name = "app.card.expiration-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CardExpirationSweeper {
+
+    private final CardService cardService;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Counter expiredCounter;
+    private final Timer sweepTimer;
+
+    @Value("${app.card.expiration-sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.card.expiration-sweeper.pause-ms:100}")
+    private long pauseMs;
+
+    public CardExpirationSweeper(CardService cardService,
+                                 CacheInvalidationPublisher cacheInvalidationPublisher,
+                                 MeterRegistry meterRegistry) {
+        this.cardService = cardService;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.meterRegistry = meterRegistry;
+        this.expiredCounter = Counter.builder("cards.expired")
+                .description("Cards moved to EXPIRED by the expiration sweeper")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("cards.expiration.sweep")
+                .description("Duration of an expiration sweeper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.card.expiration-sweeper.cron:0 5 0 * * *}")
+    public void sweep() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long expired = expireInChunks();
+        sample.stop(sweepTimer);
+
+        if (expired > 0) {
+            cacheInvalidationPublisher.allCardsChanged();
+        }
+        log.info("Expiration sweep finished, {} cards expired", expired);
+    }
+
+    private long expireInChunks() {
+        long expired = 0;
+        int chunk;
+        do {
+            chunk = cardService.expireOverdueCards(batchSize);
+            expired += chunk;
+            expiredCounter.increment(chunk);
+
+            if (chunk > 0 && !pause()) {
+                break;
+            }
+        } while (chunk > 0);
+        return expired;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
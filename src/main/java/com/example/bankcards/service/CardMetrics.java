@@ -0,0 +1,109 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.CardException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the card hot paths. Histogram buckets come from
+ * {@code management.metrics.distribution.*} like for any other meter.
+ */
+@Component
+public class CardMetrics {
+
+    public enum TransferPhase {
+        VALIDATION,
+        LOCK,
+        UPDATE,
+        COMMIT
+    }
+
+    static final String TRANSFER = "cards.transfer";
+    static final String TRANSFER_PHASE = "cards.transfer.phase";
+    static final String ACCESS_CHECK = "cards.access.check";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransferPhase, Timer> phaseTimers = new EnumMap<>(TransferPhase.class);
+    private final Timer accessGranted;
+    private final Timer accessDenied;
+
+    public CardMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (TransferPhase phase : TransferPhase.values()) {
+            phaseTimers.put(phase, Timer.builder(TRANSFER_PHASE)
+                    .description("Time spent in one phase of a money transfer")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.accessGranted = accessTimer("granted");
+        this.accessDenied = accessTimer("denied");
+    }
+
+    public void recordPhase(TransferPhase phase, long nanos) {
+        phaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a transfer that was rejected before it could commit.
+     */
+    public void recordTransferRejected(long startNanos, CardException.Reason reason) {
+        recordTransfer(startNanos, reason.tag());
+    }
+
+    public void recordTransfer(long startNanos, String outcome) {
+        Timer.builder(TRANSFER)
+                .description("End-to-end duration of a money transfer, including the commit")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Finish timing a transfer once the surrounding transaction completes, so that
+     * both the commit phase and the end-to-end timer include the actual commit.
+     */
+    public void recordTransferOnCompletion(long startNanos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordTransfer(startNanos, "success");
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStart;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStart = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    recordPhase(TransferPhase.COMMIT, System.nanoTime() - commitStart);
+                    recordTransfer(startNanos, "success");
+                } else {
+                    recordTransfer(startNanos, "rolled_back");
+                }
+            }
+        });
+    }
+
+    public void recordAccessCheck(long startNanos, boolean granted) {
+        (granted ? accessGranted : accessDenied).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer accessTimer(String outcome) {
+        return Timer.builder(ACCESS_CHECK)
+                .description("Time to check whether the current user may access a card")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.CacheInvalidationPublisher;
 import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.CardException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.fraud.VelocityChecker;
+import com.example.bankcards.outbox.CardEvents;
+import com.example.bankcards.outbox.OutboxWriter;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpecifications;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CardAccessPolicy;
 import com.example.bankcards.util.CardNumberEncryptor;
+import com.example.bankcards.util.ETags;
+import com.example.bankcards.util.RequestCoalescer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -21,7 +33,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +51,13 @@ public class CardService {
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardNumberEncryptor cardNumberEncryptor;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestCoalescer requestCoalescer;
+    private final CardMetrics cardMetrics;
+    private final OutboxWriter outboxWriter;
+    private final VelocityChecker velocityChecker;
     
     @Value("${app.card.max-per-user:5}")
     private int maxCardsPerUser;
@@ -41,6 +68,18 @@ public class CardService {
     @Value("${app.card.max-transfer-amount:100000.00}")
     private BigDecimal maxTransferAmount;
     
+    @Value("${app.card.daily-transfer-limit:250000.00}")
+    private BigDecimal dailyTransferLimit;
+    
+    @Value("${app.card.monthly-transfer-limit:1000000.00}")
+    private BigDecimal monthlyTransferLimit;
+    
+    @Value("${app.card.export.clear-interval:1000}")
+    private int exportClearInterval;
+    
+    @Value("${app.card.batch-get.max-ids:100}")
+    private int maxBatchGetIds;
+    
     /**
      * Generate a new card for a user
      */
@@ -49,10 +88,9 @@ public class CardService {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + request.getUserId()));
         
-        // Check if user has reached the maximum allowed cards
-        long cardCount = cardRepository.countByOwner(user);
-        if (cardCount >= maxCardsPerUser) {
-            throw new CardException("User has reached the maximum number of cards: " + maxCardsPerUser);
+        // Reserve a slot under the user's card limit; rolled back with the card if issuing fails
+        if (userRepository.incrementCardCount(user.getId(), maxCardsPerUser) == 0) {
+            throw new CardException(CardException.Reason.CARD_LIMIT_REACHED, "User has reached the maximum number of cards: " + maxCardsPerUser);
         }
         
         // Generate a random card number (in a real system, this would follow a specific algorithm)
@@ -63,6 +101,7 @@ public class CardService {
         Card card = Card.builder()
                 .cardNumber(cardNumberEncryptor.encrypt(cardNumber)) // Encrypt the card number
                 .maskedNumber(maskedNumber)
+                .lastFour(cardNumber.substring(12))
                 .owner(user)
                 .expirationDate(LocalDate.now().plusYears(defaultExpirationYears))
                 .status(Card.CardStatus.ACTIVE)
@@ -70,6 +109,7 @@ public class CardService {
                 .build();
         
         Card savedCard = cardRepository.save(card);
+        outboxWriter.append(CardEvents.AGGREGATE_TYPE, savedCard.getId(), CardEvents.CardCreated.of(savedCard));
         
         return mapToDto(savedCard);
     }
@@ -78,33 +118,136 @@ public class CardService {
      * Get a card by its ID
      */
     public CardDto getCard(Long id) {
-        Card card = cardRepository.findById(id)
-                .orElseThrow(() -> new CardException("Card not found with ID: " + id));
+        return getCardWithETag(id).body();
+    }
+    
+    /**
+     * Get several cards with one query, authorized against the authenticated principal
+     * without looking the user up again. Results follow the request order.
+     */
+    @Transactional(readOnly = true)
+    public BatchGetCardsResponse batchGetCards(BatchGetCardsRequest request) {
+        List<Long> ids = request.getIds();
+        if (ids.size() > maxBatchGetIds) {
+            throw new CardException(CardException.Reason.INVALID_REQUEST, "At most " + maxBatchGetIds + " card IDs can be requested at once");
+        }
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        List<String> roleNames = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        
+        Map<Long, CardOwnerView> cards = new HashMap<>();
+        for (CardOwnerView card : cardRepository.findOwnerViewsByIdIn(new HashSet<>(ids))) {
+            cards.put(card.id(), card);
+        }
+        
+        List<BatchGetCardResult> results = ids.stream()
+                .map(id -> {
+                    CardOwnerView card = cards.get(id);
+                    if (card == null) {
+                        return BatchGetCardResult.failed(id, "Card not found with ID: " + id);
+                    }
+                    if (!CardAccessPolicy.canAccess(card.ownerUsername(), username, roleNames)) {
+                        return BatchGetCardResult.failed(id, CardAccessPolicy.ACCESS_DENIED_MESSAGE);
+                    }
+                    return BatchGetCardResult.found(mapOwnerViewToDto(card));
+                })
+                .toList();
+        return new BatchGetCardsResponse(results);
+    }
+    
+    /**
+     * Get a card by its ID together with its ETag. Concurrent requests for the same card
+     * share one load in its own short transaction, so waiting callers hold no connection;
+     * access is still checked for every caller.
+     */
+    public ETagged<CardDto> getCardWithETag(Long id) {
+        CardSnapshot snapshot = requestCoalescer.execute("cards", id, () -> loadCardSnapshot(id));
         
         // Check if the current user is the owner or an admin
-        validateCardAccess(card);
+        validateCardAccess(snapshot.ownerId());
         
-        return mapToDto(card);
+        return new ETagged<>(snapshot.card(), snapshot.eTag());
+    }
+    
+    /**
+     * Current ETag of a card the user may read, without loading the card itself.
+     * Empty if the card does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getCardETag(Long id) {
+        return cardRepository.findVersionById(id)
+                .map(version -> {
+                    validateCardAccess(version.ownerId());
+                    return ETags.card(id, version.updatedAt());
+                });
     }
     
     /**
      * Get all cards for the current user
      */
+    @Transactional(readOnly = true)
     public Page<CardDto> getUserCards(Pageable pageable) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
         
         Page<Card> cards = cardRepository.findAllByOwner(user, pageable);
-        return cards.map(this::mapToDto);
+        return cards.map(CardService::mapToDto);
     }
     
     /**
      * Get all cards (admin only)
      */
+    @Transactional(readOnly = true)
     public Page<CardDto> getAllCards(Pageable pageable) {
         Page<Card> cards = cardRepository.findAll(pageable);
-        return cards.map(this::mapToDto);
+        return cards.map(CardService::mapToDto);
+    }
+    
+    /**
+     * Search cards (admin only) by a combination of filters, one keyset page at a time
+     */
+    @Transactional(readOnly = true)
+    public CardSearchResponse searchCards(CardSearchRequest request) {
+        if (!request.hasIndexedFilter()) {
+            throw new CardException(CardException.Reason.INVALID_REQUEST, "Search requires an owner, last four digits or expiration date filter");
+        }
+        
+        int size = request.getSize();
+        // One extra row tells whether another page exists without a count query
+        List<CardSummaryDto> cards = cardRepository.findSummaries(CardSpecifications.matching(request), size + 1);
+        
+        boolean hasMore = cards.size() > size;
+        List<CardSummaryDto> content = hasMore ? cards.subList(0, size) : cards;
+        Long nextCursor = hasMore ? content.get(content.size() - 1).getId() : null;
+        return new CardSearchResponse(content, nextCursor);
+    }
+    
+    /**
+     * Stream every card (admin only) to the consumer without keeping them in the persistence context
+     */
+    @Transactional(readOnly = true)
+    public long exportCards(Consumer<CardDto> consumer) {
+        long exported = 0;
+        try (Stream<Card> cards = cardRepository.streamAllWithOwner()) {
+            Iterator<Card> iterator = cards.iterator();
+            while (iterator.hasNext()) {
+                Card card = iterator.next();
+                consumer.accept(mapToDto(card));
+                entityManager.detach(card);
+                
+                // Owners are shared between rows, so they are dropped in bulk rather than one by one
+                if (++exported % exportClearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        
+        log.info("Exported {} cards", exported);
+        return exported;
     }
     
     /**
@@ -113,33 +256,123 @@ public class CardService {
     @Transactional
     public void updateCardStatus(UpdateCardStatusRequest request) {
         Card card = cardRepository.findById(request.getCardId())
-                .orElseThrow(() -> new CardException("Card not found with ID: " + request.getCardId()));
+                .orElseThrow(() -> new CardException(CardException.Reason.NOT_FOUND, "Card not found with ID: " + request.getCardId()));
         
         validateCardAccess(card);
         
+        Card.CardStatus previousStatus = card.getStatus();
         card.setStatus(request.getStatus());
         cardRepository.save(card);
+        if (previousStatus != card.getStatus()) {
+            outboxWriter.append(CardEvents.AGGREGATE_TYPE, card.getId(), new CardEvents.CardStatusChanged(
+                    card.getId(), card.getOwner().getId(), previousStatus, card.getStatus()));
+        }
+        cacheInvalidationPublisher.cardChanged(card.getId());
+        publishCardChanged(card);
+    }
+    
+    /**
+     * Expire up to batchSize overdue active cards, recording a status change event for each
+     * in the same transaction. Returns how many were expired.
+     */
+    @Transactional
+    public int expireOverdueCards(int batchSize) {
+        List<CardRepository.OverdueCard> overdue = cardRepository.lockOverdueCards(batchSize);
+        if (overdue.isEmpty()) {
+            return 0;
+        }
+
+        cardRepository.expireCards(overdue.stream().map(CardRepository.OverdueCard::getId).toList());
+        for (CardRepository.OverdueCard card : overdue) {
+            outboxWriter.append(CardEvents.AGGREGATE_TYPE, card.getId(), new CardEvents.CardStatusChanged(
+                    card.getId(), card.getOwnerId(), Card.CardStatus.ACTIVE, Card.CardStatus.EXPIRED));
+        }
+        return overdue.size();
+    }
+    
+    /**
+     * Get a card's transfer limits and what has been spent against them (admin only)
+     */
+    @Transactional(readOnly = true)
+    public CardLimitsDto getCardLimits(Long id) {
+        Card card = cardRepository.findById(id)
+                .orElseThrow(() -> new CardException(CardException.Reason.NOT_FOUND, "Card not found with ID: " + id));
+        return mapToLimits(card, LocalDate.now());
+    }
+    
+    /**
+     * Override a card's transfer limits (admin only)
+     */
+    @Transactional
+    public CardLimitsDto updateCardLimits(Long id, UpdateCardLimitsRequest request) {
+        // A limit left out falls back to its default, which the other limit must also be consistent with
+        BigDecimal dailyLimit = effectiveLimit(request.getDailyLimit(), dailyTransferLimit);
+        BigDecimal monthlyLimit = effectiveLimit(request.getMonthlyLimit(), monthlyTransferLimit);
+        if (dailyLimit.compareTo(monthlyLimit) > 0) {
+            throw new CardException(CardException.Reason.INVALID_REQUEST,
+                    "Daily limit " + dailyLimit + " cannot exceed the monthly limit " + monthlyLimit);
+        }
+        
+        // Locked like a transfer, so that writing the limits cannot overwrite a concurrent debit
+        Card card = cardRepository.findCardForUpdate(id)
+                .orElseThrow(() -> new CardException(CardException.Reason.NOT_FOUND, "Card not found with ID: " + id));
+        card.setDailyLimit(request.getDailyLimit());
+        card.setMonthlyLimit(request.getMonthlyLimit());
+        cardRepository.save(card);
+        cacheInvalidationPublisher.cardChanged(id);
+        
+        log.info("Updated transfer limits of card {}: daily {}, monthly {}", id, request.getDailyLimit(), request.getMonthlyLimit());
+        return mapToLimits(card, LocalDate.now());
     }
     
     /**
      * Transfer money between cards
      */
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    // Both card rows are locked before anything is read from them, and a locking read at READ COMMITTED
+    // waits for a concurrent transfer and then sees its commit; REPEATABLE READ would fail it instead
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void transferMoney(TransferRequest request) {
+        long startNanos = System.nanoTime();
+        try {
+            executeTransfer(request);
+        } catch (CardException e) {
+            cardMetrics.recordTransferRejected(startNanos, e.getReason());
+            throw e;
+        } catch (AccessDeniedException e) {
+            cardMetrics.recordTransfer(startNanos, "access_denied");
+            throw e;
+        } catch (RuntimeException e) {
+            cardMetrics.recordTransfer(startNanos, "error");
+            throw e;
+        }
+        cardMetrics.recordTransferOnCompletion(startNanos);
+    }
+    
+    private void executeTransfer(TransferRequest request) {
+        long phaseStart = System.nanoTime();
         if (request.getAmount().compareTo(maxTransferAmount) > 0) {
-            throw new CardException("Transfer amount exceeds the maximum allowed: " + maxTransferAmount);
+            throw new CardException(CardException.Reason.AMOUNT_LIMIT_EXCEEDED, "Transfer amount exceeds the maximum allowed: " + maxTransferAmount);
         }
         
         if (request.getSourceCardId().equals(request.getDestinationCardId())) {
-            throw new CardException("Source and destination cards cannot be the same");
+            throw new CardException(CardException.Reason.SAME_CARD, "Source and destination cards cannot be the same");
         }
+        long validationNanos = System.nanoTime() - phaseStart;
         
-        Card sourceCard = cardRepository.findCardForUpdate(request.getSourceCardId())
-                .orElseThrow(() -> new CardException("Source card not found with ID: " + request.getSourceCardId()));
-        
-        Card destinationCard = cardRepository.findCardForUpdate(request.getDestinationCardId())
-                .orElseThrow(() -> new CardException("Destination card not found with ID: " + request.getDestinationCardId()));
+        phaseStart = System.nanoTime();
+        // In id order, so that transfers in opposite directions between two cards cannot deadlock
+        Card sourceCard;
+        Card destinationCard;
+        if (request.getSourceCardId() < request.getDestinationCardId()) {
+            sourceCard = lockCard(request.getSourceCardId(), "Source");
+            destinationCard = lockCard(request.getDestinationCardId(), "Destination");
+        } else {
+            destinationCard = lockCard(request.getDestinationCardId(), "Destination");
+            sourceCard = lockCard(request.getSourceCardId(), "Source");
+        }
+        cardMetrics.recordPhase(CardMetrics.TransferPhase.LOCK, System.nanoTime() - phaseStart);
         
+        phaseStart = System.nanoTime();
         // Check if both cards belong to the current user
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User currentUser = userRepository.findByUsername(username)
@@ -155,24 +388,53 @@ public class CardService {
         
         // Check if cards are active
         if (sourceCard.getStatus() != Card.CardStatus.ACTIVE) {
-            throw new CardException("Source card is not active");
+            throw new CardException(CardException.Reason.CARD_NOT_ACTIVE, "Source card is not active");
         }
         
         if (destinationCard.getStatus() != Card.CardStatus.ACTIVE) {
-            throw new CardException("Destination card is not active");
+            throw new CardException(CardException.Reason.CARD_NOT_ACTIVE, "Destination card is not active");
+        }
+        
+        // The expiration sweeper runs periodically, so a card may still be ACTIVE past its date
+        LocalDate today = LocalDate.now();
+        if (sourceCard.getExpirationDate().isBefore(today)) {
+            throw new CardException(CardException.Reason.CARD_EXPIRED, "Source card has expired");
+        }
+        
+        if (destinationCard.getExpirationDate().isBefore(today)) {
+            throw new CardException(CardException.Reason.CARD_EXPIRED, "Destination card has expired");
         }
         
         // Check sufficient balance
         if (sourceCard.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new CardException("Insufficient funds in the source card");
+            throw new CardException(CardException.Reason.INSUFFICIENT_FUNDS, "Insufficient funds in the source card");
         }
         
+        chargeSpendLimits(sourceCard, request.getAmount(), today);
+        
+        // Last, so that only transfers that would otherwise go through count; the source card is locked
+        velocityChecker.screen(sourceCard.getId(), destinationCard.getId(), request.getAmount());
+        validationNanos += System.nanoTime() - phaseStart;
+        cardMetrics.recordPhase(CardMetrics.TransferPhase.VALIDATION, validationNanos);
+        
         // Perform the transfer
+        phaseStart = System.nanoTime();
         sourceCard.setBalance(sourceCard.getBalance().subtract(request.getAmount()));
         destinationCard.setBalance(destinationCard.getBalance().add(request.getAmount()));
         
         cardRepository.save(sourceCard);
         cardRepository.save(destinationCard);
+        outboxWriter.append(CardEvents.AGGREGATE_TYPE, sourceCard.getId(), new CardEvents.TransferCompleted(
+                sourceCard.getId(), destinationCard.getId(), currentUser.getId(), request.getAmount(),
+                sourceCard.getBalance(), destinationCard.getBalance()));
+        // Flush here so the UPDATE statements are timed as part of this phase rather than the commit
+        entityManager.flush();
+        cardMetrics.recordPhase(CardMetrics.TransferPhase.UPDATE, System.nanoTime() - phaseStart);
+        
+        cacheInvalidationPublisher.cardChanged(sourceCard.getId());
+        cacheInvalidationPublisher.cardChanged(destinationCard.getId());
+        publishCardChanged(sourceCard);
+        publishCardChanged(destinationCard);
         
         log.info("Transferred {} from card {} to card {}", 
                 request.getAmount(), sourceCard.getMaskedNumber(), destinationCard.getMaskedNumber());
@@ -184,15 +446,75 @@ public class CardService {
     @Transactional
     public void deleteCard(Long id) {
         Card card = cardRepository.findById(id)
-                .orElseThrow(() -> new CardException("Card not found with ID: " + id));
+                .orElseThrow(() -> new CardException(CardException.Reason.NOT_FOUND, "Card not found with ID: " + id));
         
         cardRepository.delete(card);
+        userRepository.decrementCardCount(card.getOwner().getId());
+        cacheInvalidationPublisher.cardChanged(id);
         log.info("Deleted card with ID: {}", id);
     }
     
     // Helper methods
     
-    private String generateCardNumber() {
+    private Card lockCard(Long id, String role) {
+        return cardRepository.findCardForUpdate(id)
+                .orElseThrow(() -> new CardException(CardException.Reason.NOT_FOUND, role + " card not found with ID: " + id));
+    }
+    
+    /**
+     * Add an outbound amount to the card's daily and monthly totals, or reject it if that would take
+     * either over its limit. The card must be locked; the totals are written with the debit.
+     */
+    private void chargeSpendLimits(Card card, BigDecimal amount, LocalDate today) {
+        BigDecimal spentToday = spentToday(card, today).add(amount);
+        BigDecimal dailyLimit = effectiveLimit(card.getDailyLimit(), dailyTransferLimit);
+        if (spentToday.compareTo(dailyLimit) > 0) {
+            throw new CardException(CardException.Reason.SPEND_LIMIT_EXCEEDED, "Transfer exceeds the card's daily limit: " + dailyLimit);
+        }
+        
+        BigDecimal spentThisMonth = spentThisMonth(card, today).add(amount);
+        BigDecimal monthlyLimit = effectiveLimit(card.getMonthlyLimit(), monthlyTransferLimit);
+        if (spentThisMonth.compareTo(monthlyLimit) > 0) {
+            throw new CardException(CardException.Reason.SPEND_LIMIT_EXCEEDED, "Transfer exceeds the card's monthly limit: " + monthlyLimit);
+        }
+        
+        card.setSpentDay(today);
+        card.setSpentToday(spentToday);
+        card.setSpentMonth(today.withDayOfMonth(1));
+        card.setSpentThisMonth(spentThisMonth);
+    }
+    
+    // Totals of an earlier day or month are stale and count as nothing spent
+    private static BigDecimal spentToday(Card card, LocalDate today) {
+        return today.equals(card.getSpentDay()) ? card.getSpentToday() : BigDecimal.ZERO;
+    }
+    
+    private static BigDecimal spentThisMonth(Card card, LocalDate today) {
+        return today.withDayOfMonth(1).equals(card.getSpentMonth()) ? card.getSpentThisMonth() : BigDecimal.ZERO;
+    }
+    
+    private static BigDecimal effectiveLimit(BigDecimal cardLimit, BigDecimal defaultLimit) {
+        return cardLimit != null ? cardLimit : defaultLimit;
+    }
+    
+    private CardLimitsDto mapToLimits(Card card, LocalDate today) {
+        return CardLimitsDto.builder()
+                .cardId(card.getId())
+                .dailyLimit(effectiveLimit(card.getDailyLimit(), dailyTransferLimit))
+                .monthlyLimit(effectiveLimit(card.getMonthlyLimit(), monthlyTransferLimit))
+                .dailyLimitOverridden(card.getDailyLimit() != null)
+                .monthlyLimitOverridden(card.getMonthlyLimit() != null)
+                .spentToday(spentToday(card, today))
+                .spentThisMonth(spentThisMonth(card, today))
+                .build();
+    }
+    
+    // Subscribers only see the change once the surrounding transaction commits
+    private void publishCardChanged(Card card) {
+        eventPublisher.publishEvent(new CardChangedEvent(card.getOwner().getUsername(), mapToDto(card)));
+    }
+    
+    static String generateCardNumber() {
         Random random = new Random();
         StringBuilder sb = new StringBuilder();
         
@@ -204,25 +526,39 @@ public class CardService {
         return sb.toString();
     }
     
-    private String maskCardNumber(String cardNumber) {
+    static String maskCardNumber(String cardNumber) {
         // Format: **** **** **** 1234
         return "**** **** **** " + cardNumber.substring(12);
     }
     
+    private CardSnapshot loadCardSnapshot(Long id) {
+        Card card = cardRepository.findWithOwnerById(id)
+                .orElseThrow(() -> new CardException(CardException.Reason.NOT_FOUND, "Card not found with ID: " + id));
+        return new CardSnapshot(mapToDto(card), card.getOwner().getId(), ETags.card(card.getId(), card.getUpdatedAt()));
+    }
+    
     private void validateCardAccess(Card card) {
+        validateCardAccess(card.getOwner().getId());
+    }
+    
+    private void validateCardAccess(Long ownerId) {
+        long startNanos = System.nanoTime();
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
         
-        boolean isAdmin = currentUser.getRoles().stream()
-                .anyMatch(role -> role.getName().name().equals("ADMIN"));
+        List<String> roleNames = currentUser.getRoles().stream()
+                .map(role -> role.getName().name())
+                .toList();
         
-        if (!isAdmin && !card.getOwner().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("You don't have permission to access this card");
+        boolean granted = CardAccessPolicy.canAccess(ownerId, currentUser.getId(), roleNames);
+        cardMetrics.recordAccessCheck(startNanos, granted);
+        if (!granted) {
+            throw new AccessDeniedException(CardAccessPolicy.ACCESS_DENIED_MESSAGE);
         }
     }
     
-    private CardDto mapToDto(Card card) {
+    static CardDto mapToDto(Card card) {
         return CardDto.builder()
                 .id(card.getId())
                 .maskedNumber(card.getMaskedNumber())
@@ -232,4 +568,19 @@ public class CardService {
                 .balance(card.getBalance())
                 .build();
     }
-}
\ No newline at end of file
+    
+    private CardDto mapOwnerViewToDto(CardOwnerView card) {
+        return CardDto.builder()
+                .id(card.id())
+                .maskedNumber(card.maskedNumber())
+                .ownerUsername(card.ownerUsername())
+                .expirationDate(card.expirationDate())
+                .status(card.status())
+                .balance(card.balance())
+                .build();
+    }
+    
+    // Caller-independent result of a coalesced card load
+    private record CardSnapshot(CardDto card, Long ownerId, String eTag) {
+    }
+}
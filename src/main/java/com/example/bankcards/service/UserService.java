@@ -1,12 +1,15 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.CacheInvalidationPublisher;
 import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.*;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.ETags;
 import com.example.bankcards.util.JwtTokenUtil;
+import com.example.bankcards.util.RequestCoalescer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -25,17 +28,24 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final RequestCoalescer requestCoalescer;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        RoleRepository roleRepository,
                        AuthenticationManager authenticationManager,
-                       JwtTokenUtil jwtTokenUtil) {
+                       JwtTokenUtil jwtTokenUtil,
+                       CacheInvalidationPublisher cacheInvalidationPublisher,
+                       RequestCoalescer requestCoalescer) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.requestCoalescer = requestCoalescer;
     }
 
+    @Transactional(readOnly = true)
     public Page<ListUsersResponse> getPaginatedUsers(Pageable pageable) {
         Page<User> userPage = userRepository.findAll(pageable);
         return userPage.map(this::convertToDto);
@@ -63,6 +73,8 @@ public class UserService {
         user.addRole(userRole);
 
         user = userRepository.save(user);
+        // Other nodes may have cached that the username does not exist
+        cacheInvalidationPublisher.userChanged(user.getId());
 
         CreateUserResponse createUserResponse = new CreateUserResponse();
         createUserResponse.setUsername(user.getUsername());
@@ -71,6 +83,18 @@ public class UserService {
     }
 
     public GetUserResponse getUser(Long id) {
+        return getUserWithETag(id).body();
+    }
+
+    /**
+     * Concurrent requests for the same user share one load. Callers have already been
+     * authorized by the web layer, and the result does not depend on who asked.
+     */
+    public ETagged<GetUserResponse> getUserWithETag(Long id) {
+        return requestCoalescer.execute("users", id, () -> loadUser(id));
+    }
+
+    private ETagged<GetUserResponse> loadUser(Long id) {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isEmpty()) {
             throw new UserNotFoundException("User not found");
@@ -82,12 +106,21 @@ public class UserService {
         response.setUsername(user.getUsername());
         response.setRoles(user.getRoles().stream().map(role -> role.getName().name()).toList());
 
-        return response;
+        return new ETagged<>(response, ETags.user(user.getId(), user.getVersion()));
+    }
+
+    /**
+     * Current ETag of a user, read from the version column alone
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getUserETag(Long id) {
+        return userRepository.findVersionById(id).map(version -> ETags.user(id, version));
     }
 
     @Transactional
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        cacheInvalidationPublisher.userChanged(id);
     }
 
     @Transactional
@@ -111,6 +144,7 @@ public class UserService {
 
         user.addRole(role);
         userRepository.save(user);
+        cacheInvalidationPublisher.userChanged(user.getId());
     }
 
     @Transactional
@@ -134,5 +168,6 @@ public class UserService {
 
         user.removeRole(role);
         userRepository.save(user);
+        cacheInvalidationPublisher.userChanged(user.getId());
     }
 }
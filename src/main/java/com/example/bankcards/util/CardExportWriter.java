@@ -0,0 +1,88 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes exported cards one row at a time straight to the response stream.
+ */
+public class CardExportWriter implements Closeable {
+
+    private static final String CSV_HEADER = "id,maskedNumber,ownerUsername,expirationDate,status,balance\n";
+
+    private final CardExportFormat format;
+    private final Writer csvWriter;
+    private final SequenceWriter jsonWriter;
+
+    public CardExportWriter(CardExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        if (format == CardExportFormat.CSV) {
+            this.csvWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.jsonWriter = null;
+            csvWriter.write(CSV_HEADER);
+        } else {
+            this.csvWriter = null;
+            this.jsonWriter = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream);
+        }
+    }
+
+    public void write(CardDto card) {
+        try {
+            if (format == CardExportFormat.CSV) {
+                writeCsvRow(card);
+            } else {
+                jsonWriter.write(card);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing card export", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (format == CardExportFormat.CSV) {
+            csvWriter.close();
+        } else {
+            jsonWriter.close();
+        }
+    }
+
+    private void writeCsvRow(CardDto card) throws IOException {
+        csvWriter.write(String.valueOf(card.getId()));
+        csvWriter.write(',');
+        csvWriter.write(card.getMaskedNumber());
+        csvWriter.write(',');
+        writeCsvField(card.getOwnerUsername());
+        csvWriter.write(',');
+        csvWriter.write(String.valueOf(card.getExpirationDate()));
+        csvWriter.write(',');
+        csvWriter.write(card.getStatus().name());
+        csvWriter.write(',');
+        csvWriter.write(card.getBalance().toPlainString());
+        csvWriter.write('\n');
+    }
+
+    private void writeCsvField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            csvWriter.write(value);
+            return;
+        }
+
+        csvWriter.write('"');
+        csvWriter.write(value.replace("\"", "\"\""));
+        csvWriter.write('"');
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.bankcards.util;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -17,10 +19,29 @@ public class CardNumberEncryptor {
     
     private static final String ALGORITHM = "AES";
     
+    private final Timer encryptTimer;
+    private final Timer decryptTimer;
+    
+    public CardNumberEncryptor(MeterRegistry meterRegistry) {
+        this.encryptTimer = cryptoTimer("encrypt", meterRegistry);
+        this.decryptTimer = cryptoTimer("decrypt", meterRegistry);
+    }
+    
     /**
      * Encrypt a card number
      */
     public String encrypt(String cardNumber) {
+        return encryptTimer.record(() -> doEncrypt(cardNumber));
+    }
+    
+    /**
+     * Decrypt a card number
+     */
+    public String decrypt(String encryptedCardNumber) {
+        return decryptTimer.record(() -> doDecrypt(encryptedCardNumber));
+    }
+    
+    private String doEncrypt(String cardNumber) {
         try {
             Key key = new SecretKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
             Cipher cipher = Cipher.getInstance(ALGORITHM);
@@ -32,10 +53,7 @@ public class CardNumberEncryptor {
         }
     }
     
-    /**
-     * Decrypt a card number
-     */
-    public String decrypt(String encryptedCardNumber) {
+    private String doDecrypt(String encryptedCardNumber) {
         try {
             Key key = new SecretKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
             Cipher cipher = Cipher.getInstance(ALGORITHM);
@@ -46,4 +64,11 @@ public class CardNumberEncryptor {
             throw new RuntimeException("Error decrypting card number", e);
         }
     }
-}
\ No newline at end of file
+    
+    private static Timer cryptoTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("cards.number.crypto")
+                .description("Time to encrypt or decrypt a card number")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
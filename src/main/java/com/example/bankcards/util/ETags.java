@@ -0,0 +1,23 @@
+package com.example.bankcards.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Strong entity tags for cards and users. Spring adds the surrounding quotes.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String card(Long id, LocalDateTime updatedAt) {
+        // The database keeps microseconds, so an entity still in memory must not tag with more precision
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "card-" + id + "-" + Long.toHexString(micros);
+    }
+
+    public static String user(Long id, Long version) {
+        return "user-" + id + "-" + version;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bankcards.util;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * A pre-serialized error response, see {@link ErrorResponseUtil#createTemplate}.
+ */
+public class ErrorResponseTemplate {
+
+    interface Fallback {
+        void write(HttpServletResponse response) throws IOException;
+    }
+
+    private final HttpStatus status;
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final Fallback fallback;
+
+    ErrorResponseTemplate(HttpStatus status, byte[] prefix, byte[] suffix, Fallback fallback) {
+        this.status = status;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.fallback = fallback;
+    }
+
+    public void write(HttpServletResponse response) throws IOException {
+        if (fallback != null) {
+            fallback.write(response);
+            return;
+        }
+
+        byte[] timestamp = timestampBytes(Instant.now());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(prefix.length + timestamp.length + suffix.length);
+        ServletOutputStream outputStream = response.getOutputStream();
+        outputStream.write(prefix);
+        outputStream.write(timestamp);
+        outputStream.write(suffix);
+    }
+
+    // Instant as Jackson's JavaTimeModule writes it with WRITE_DATES_AS_TIMESTAMPS off
+    static byte[] timestampBytes(Instant instant) {
+        return ('"' + instant.toString() + '"').getBytes(StandardCharsets.US_ASCII);
+    }
+}
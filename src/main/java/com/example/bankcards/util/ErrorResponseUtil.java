@@ -1,5 +1,7 @@
 package com.example.bankcards.util;
 
+import com.example.bankcards.dto.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
@@ -8,52 +10,92 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.Date;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Map;
 
 
 @Component
 public class ErrorResponseUtil {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Stands in for the timestamp while a template is serialized
+    private static final Instant TEMPLATE_TIMESTAMP = Instant.EPOCH;
 
-    public Map<String, Object> createErrorResponseMap(HttpStatus status, String message) {
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("status", status.value());
-        errorResponse.put("error", status.getReasonPhrase());
-        errorResponse.put("message", message);
-        errorResponse.put("timestamp", new Date());
-        return errorResponse;
+    private final ObjectMapper objectMapper;
+
+    public ErrorResponseUtil(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ErrorResponse createErrorResponse(HttpStatus status, String message) {
+        return ErrorResponse.of(status, message);
     }
 
-    public Map<String, Object> createErrorResponseMap(HttpStatus status, String message, Map<String, Object> details) {
-        Map<String, Object> errorResponse = createErrorResponseMap(status, message);
-        errorResponse.put("details", details);
-        return errorResponse;
+    public ErrorResponse createErrorResponse(HttpStatus status, String message, Map<String, Object> details) {
+        return ErrorResponse.of(status, message, details);
     }
 
     public ResponseEntity<Object> buildErrorResponseEntity(HttpStatus status, String message) {
-        return new ResponseEntity<>(createErrorResponseMap(status, message), status);
+        return new ResponseEntity<>(createErrorResponse(status, message), status);
     }
 
     public ResponseEntity<Object> buildErrorResponseEntity(HttpStatus status, String message, Map<String, Object> details) {
-        return new ResponseEntity<>(createErrorResponseMap(status, message, details), status);
+        return new ResponseEntity<>(createErrorResponse(status, message, details), status);
     }
 
     public void setErrorResponse(HttpServletResponse response, HttpStatus status, String message) throws IOException {
-        Map<String, Object> errorResponse = createErrorResponseMap(status, message);
-
-        response.setStatus(status.value());
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        objectMapper.writeValue(response.getWriter(), errorResponse);
+        writeErrorResponse(response, createErrorResponse(status, message));
     }
 
     public void setErrorResponse(HttpServletResponse response, HttpStatus status, String message, Map<String, Object> details) throws IOException {
-        Map<String, Object> errorResponse = createErrorResponseMap(status, message, details);
+        writeErrorResponse(response, createErrorResponse(status, message, details));
+    }
+
+    /**
+     * Serialize the response for a fixed message once, so that writing it only has to
+     * splice in the timestamp. Falls back to full serialization if the configured
+     * {@link ObjectMapper} does not write timestamps as ISO-8601 strings.
+     */
+    public ErrorResponseTemplate createTemplate(HttpStatus status, String message) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(
+                    new ErrorResponse(status.value(), status.getReasonPhrase(), message, TEMPLATE_TIMESTAMP, null));
+            byte[] timestamp = objectMapper.writeValueAsBytes(TEMPLATE_TIMESTAMP);
+            int at = lastIndexOf(json, timestamp);
+            if (at < 0 || !Arrays.equals(timestamp, ErrorResponseTemplate.timestampBytes(TEMPLATE_TIMESTAMP))) {
+                return new ErrorResponseTemplate(status, null, null,
+                        response -> setErrorResponse(response, status, message));
+            }
+            return new ErrorResponseTemplate(status,
+                    Arrays.copyOfRange(json, 0, at),
+                    Arrays.copyOfRange(json, at + timestamp.length, json.length),
+                    null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Cannot serialize error response template", e);
+        }
+    }
 
-        response.setStatus(status.value());
+    private void writeErrorResponse(HttpServletResponse response, ErrorResponse errorResponse) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(errorResponse);
+        response.setStatus(errorResponse.status());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        objectMapper.writeValue(response.getWriter(), errorResponse);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static int lastIndexOf(byte[] array, byte[] target) {
+        outer:
+        for (int i = array.length - target.length; i >= 0; i--) {
+            for (int j = 0; j < target.length; j++) {
+                if (array[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
     }
-}
\ No newline at end of file
+}
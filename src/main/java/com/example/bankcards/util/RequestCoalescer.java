@@ -0,0 +1,131 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight loading: while a load for a key is running, callers asking for the
+ * same key wait for its result instead of starting their own. Nothing is cached
+ * once the load has finished.
+ * <p>
+ * Loads are shared between all callers, so a loader must not depend on the caller:
+ * access checks belong after the shared load, not in it. Callers who wrote recently
+ * load on their own, so that they read from the primary rather than from a load that
+ * may predate their write, and followers stop waiting for a stuck load after
+ * {@code wait-timeout-ms}.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private static final long DEFAULT_WAIT_TIMEOUT_MS = 2000;
+
+    private final Map<GroupKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> loadCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> timeoutCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long waitTimeoutMs;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public RequestCoalescer(MeterRegistry meterRegistry, boolean enabled) {
+        this(meterRegistry, enabled, DEFAULT_WAIT_TIMEOUT_MS, (ReadYourWritesTracker) null);
+    }
+
+    @Autowired
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${app.request-coalescing.enabled:true}") boolean enabled,
+                            @Value("${app.request-coalescing.wait-timeout-ms:2000}") long waitTimeoutMs,
+                            ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        this(meterRegistry, enabled, waitTimeoutMs, readYourWritesTracker.getIfAvailable());
+    }
+
+    RequestCoalescer(MeterRegistry meterRegistry, boolean enabled, long waitTimeoutMs, ReadYourWritesTracker readYourWritesTracker) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.waitTimeoutMs = waitTimeoutMs;
+        // Only present with read replicas; without them every read sees the caller's committed writes
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    public <V> V execute(String group, Object key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        if (readYourWritesTracker != null && readYourWritesTracker.requiresPrimary(currentPrincipal())) {
+            return loader.get();
+        }
+
+        GroupKey groupKey = new GroupKey(group, key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(groupKey, load);
+        if (existing != null) {
+            counter(coalescedCounters, "requests.coalesced", group).increment();
+            return awaitOrLoad(group, existing, loader);
+        }
+
+        counter(loadCounters, "requests.coalescing.loads", group).increment();
+        try {
+            V value = loader.get();
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(groupKey, load);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V awaitOrLoad(String group, CompletableFuture<Object> load, Supplier<V> loader) {
+        try {
+            return (V) load.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Waiters see the loader's own exception, e.g. "card not found"
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            counter(timeoutCounters, "requests.coalescing.timeouts", group).increment();
+            log.debug("Coalesced {} load did not finish within {} ms, loading directly", group, waitTimeoutMs);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced load", e);
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String group) {
+        return counters.computeIfAbsent(group, g -> Counter.builder(name)
+                .tag("group", g)
+                .register(meterRegistry));
+    }
+
+    private record GroupKey(String group, Object key) {
+    }
+}
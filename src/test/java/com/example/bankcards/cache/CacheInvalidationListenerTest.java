@@ -0,0 +1,83 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private jakarta.persistence.Cache jpaCache;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new CacheInvalidationListener(new DataSourceProperties(), entityManagerFactory, publisher, new SimpleMeterRegistry());
+        when(publisher.getNodeId()).thenReturn("local");
+    }
+
+    @Test
+    void handle_UserChanged_ShouldEvictTheUserItsRolesAndCachedQueries() {
+        stubCache();
+
+        listener.handle("remote:user:7");
+
+        verify(cache).evict(User.class, 7L);
+        verify(cache).evictCollectionData(User.class.getName() + ".roles", 7L);
+        verify(cache).evictDefaultQueryRegion();
+    }
+
+    @Test
+    void handle_AllUsersChanged_ShouldEvictAllRoles() {
+        stubCache();
+
+        listener.handle("remote:user:*");
+
+        verify(cache).evict(User.class);
+        verify(cache).evictCollectionData(User.class.getName() + ".roles");
+        verify(cache).evictDefaultQueryRegion();
+    }
+
+    @Test
+    void handle_CardChanged_ShouldOnlyEvictTheCard() {
+        stubCache();
+
+        listener.handle("remote:card:3");
+
+        verify(cache).evict(Card.class, 3L);
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    void handle_OwnInvalidation_ShouldBeIgnored() {
+        listener.handle("local:user:7");
+
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    private void stubCache() {
+        when(entityManagerFactory.getCache()).thenReturn(jpaCache);
+        when(jpaCache.unwrap(Cache.class)).thenReturn(cache);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.CardVersion;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BankCardsRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    BankCardsRuntimeHintsTest() {
+        new BankCardsRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersJjwtImplementationTypes() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder")))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersChangelogsAndCacheConfiguration() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/main.yml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/changelogs/03-cards.yaml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("application.conf")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("jwt.properties")).accepts(hints);
+    }
+
+    @Test
+    void registersConstructorExpressionsAndJdbcProxies() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(CardVersion.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, Connection.class)).accepts(hints);
+    }
+}
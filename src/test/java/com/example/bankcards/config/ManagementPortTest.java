@@ -0,0 +1,47 @@
+package com.example.bankcards.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // A database of its own: this context runs next to the mock-environment ones
+        "spring.datasource.url=jdbc:h2:mem:managementdb",
+        "management.server.port=0"
+})
+// Metrics export, which tests otherwise switch off
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ManagementPortTest {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prometheus_ShouldOnlyBeServedOnTheManagementPort() {
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody()).contains("jvm_memory_used_bytes");
+
+        ResponseEntity<String> publicScrape = restTemplate.getForEntity(
+                "http://localhost:" + serverPort + "/api/actuator/prometheus", String.class);
+        assertThat(publicScrape.getStatusCode().is2xxSuccessful()).isFalse();
+        assertThat(publicScrape.getBody()).doesNotContain("jvm_memory_used_bytes");
+    }
+}
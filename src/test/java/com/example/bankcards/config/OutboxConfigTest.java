@@ -0,0 +1,60 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.outbox.FileOutboxSink;
+import com.example.bankcards.outbox.InMemoryOutboxSink;
+import com.example.bankcards.outbox.OutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class OutboxConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(OutboxConfig.class)
+            .withBean(NamedParameterJdbcTemplate.class, () -> mock(NamedParameterJdbcTemplate.class))
+            .withBean(PlatformTransactionManager.class, () -> mock(PlatformTransactionManager.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(ObjectMapper.class, ObjectMapper::new);
+
+    @TempDir
+    private Path outboxDir;
+
+    @Test
+    void relay_WithoutSink_ShouldFailToStart() {
+        contextRunner.run(context -> {
+            assertThat(context).hasFailed();
+            assertThat(context.getStartupFailure()).rootCause().hasMessageContaining("app.outbox.sink");
+        });
+    }
+
+    @Test
+    void relay_Disabled_ShouldNotNeedASink() {
+        contextRunner
+                .withPropertyValues("app.outbox.relay.enabled=false")
+                .run(context -> assertThat(context).hasNotFailed().doesNotHaveBean(OutboxRelay.class));
+    }
+
+    @Test
+    void relay_WithFileSink_ShouldPublishToTheFile() {
+        contextRunner
+                .withPropertyValues("app.outbox.sink=file", "app.outbox.file=" + outboxDir.resolve("events.ndjson"))
+                .run(context -> assertThat(context).hasSingleBean(FileOutboxSink.class).hasSingleBean(OutboxRelay.class));
+    }
+
+    @Test
+    void relay_WithMemorySink_ShouldPublishInMemory() {
+        contextRunner
+                .withPropertyValues("app.outbox.sink=memory")
+                .run(context -> assertThat(context).hasSingleBean(InMemoryOutboxSink.class).hasSingleBean(OutboxRelay.class));
+    }
+}
@@ -4,13 +4,19 @@ import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.filter.SqlStatisticsFilter;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +24,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,8 +32,11 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -57,6 +67,12 @@ public class CardControllerTest {
     @Autowired
     private CardRepository cardRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Long adminId;
     private Long testUserId;
     private Long testCardId;
@@ -157,6 +173,29 @@ public class CardControllerTest {
         assertThat(allCards).hasSize(2); // Only the two cards created in setUp
     }
 
+    @Test
+    @WithMockUser(username = "admin", authorities = {"ADMIN"})
+    void createCard_AtCardLimit_ShouldBeRejectedUntilACardIsDeleted() throws Exception {
+        CreateCardRequest createCardRequest = new CreateCardRequest();
+        createCardRequest.setUserId(testUserId);
+        createCardRequest.setInitialBalance(new BigDecimal("100.00"));
+        String body = objectMapper.writeValueAsString(createCardRequest);
+
+        // Two cards from setUp, three more up to the limit of five
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/cards").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/cards").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("User has reached the maximum number of cards: 5"));
+
+        mockMvc.perform(delete("/cards/{id}", testCardId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/cards").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+    }
+
     @Test
     @WithMockUser(username = "testuser", authorities = {"USER"})
     void getCard_AsOwner_ShouldReturnCard() throws Exception {
@@ -197,6 +236,103 @@ public class CardControllerTest {
                 .andExpect(jsonPath("$.ownerUsername").value("testuser"));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void getCard_ShouldReportSqlStatisticsHeaders() throws Exception {
+        MvcResult result = mockMvc.perform(get("/cards/{id}", testCardId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatisticsFilter.ROWS_HEADER))
+                .andExpect(header().exists(SqlStatisticsFilter.TIME_HEADER))
+                .andReturn();
+
+        // The card with its owner, and the current user for the access check
+        long statements = Long.parseLong(result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void getCard_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/cards/{id}", testCardId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/cards/{id}", testCardId)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/cards/status")
+                .with(user("admin").authorities(new SimpleGrantedAuthority("ADMIN")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateCardStatusRequest(testCardId, Card.CardStatus.BLOCKED))))
+                .andExpect(status().isNoContent());
+
+        String changedETag = mockMvc.perform(get("/cards/{id}", testCardId)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("BLOCKED"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(changedETag).isNotNull().isNotEqualTo(eTag);
+
+        mockMvc.perform(get("/cards/{id}", testCardId)
+                .header("If-None-Match", changedETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "otheruser", authorities = {"USER"})
+    void getCard_WithETagAsNonOwner_ShouldReturnForbidden() throws Exception {
+        CreateUserRequest createUserRequest = new CreateUserRequest();
+        createUserRequest.setUsername("otheruser");
+        createUserRequest.setPassword("password");
+        userService.createUser(createUserRequest);
+
+        mockMvc.perform(get("/cards/{id}", testCardId)
+                .header("If-None-Match", "\"anything\""))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void batchGetCards_ShouldReturnResultsInRequestOrder() throws Exception {
+        CreateCardRequest adminCardRequest = new CreateCardRequest();
+        adminCardRequest.setUserId(adminId);
+        adminCardRequest.setInitialBalance(new BigDecimal("10.00"));
+        Long adminCardId = cardService.createCard(adminCardRequest).getId();
+
+        BatchGetCardsRequest request = new BatchGetCardsRequest(List.of(secondCardId, 999999L, adminCardId, testCardId));
+
+        mockMvc.perform(post("/cards/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(4))
+                .andExpect(jsonPath("$.results[0].card.id").value(secondCardId))
+                .andExpect(jsonPath("$.results[0].card.ownerUsername").value("testuser"))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].id").value(999999L))
+                .andExpect(jsonPath("$.results[1].error").value("Card not found with ID: 999999"))
+                .andExpect(jsonPath("$.results[2].id").value(adminCardId))
+                .andExpect(jsonPath("$.results[2].card").doesNotExist())
+                .andExpect(jsonPath("$.results[2].error").value("You don't have permission to access this card"))
+                .andExpect(jsonPath("$.results[3].card.id").value(testCardId))
+                // All four ids, owners included, in one query
+                .andExpect(header().string(SqlStatisticsFilter.STATEMENTS_HEADER, "1"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void batchGetCards_TooManyIds_ShouldReturnBadRequest() throws Exception {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        mockMvc.perform(post("/cards/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchGetCardsRequest(ids))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "testuser", authorities = {"USER"})
     void getUserCards_ShouldReturnUserCards() throws Exception {
@@ -212,6 +348,38 @@ public class CardControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void getUserCards_ShouldKeepThePageResponseShape() throws Exception {
+        MvcResult result = mockMvc.perform(get("/cards/my")
+                .param("page", "1")
+                .param("size", "1")
+                .accept(PageResponse.V1_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PageResponse.V1_MEDIA_TYPE))
+                .andReturn();
+
+        // Clients of version 1 depend on these names: fields may be added, never renamed or removed
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertThat(body.properties()).extracting(Map.Entry::getKey).containsExactly("content", "page");
+        assertThat(body.get("page").properties()).extracting(Map.Entry::getKey)
+                .containsExactly("size", "number", "totalElements", "totalPages");
+        assertThat(body.get("content")).hasSize(1);
+        assertThat(body.get("page").get("size").asInt()).isEqualTo(1);
+        assertThat(body.get("page").get("number").asInt()).isEqualTo(1);
+        assertThat(body.get("page").get("totalElements").asLong()).isEqualTo(2);
+        assertThat(body.get("page").get("totalPages").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void getUserCards_WithoutVersion_ShouldAnswerWithTheCurrentVersionAsJson() throws Exception {
+        mockMvc.perform(get("/cards/my").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.page.totalElements").value(2));
+    }
+
     @Test
     @WithMockUser(username = "admin", authorities = {"ADMIN"})
     void getAllCards_WithAdminRole_ShouldReturnAllCards() throws Exception {
@@ -232,6 +400,67 @@ public class CardControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockUser(username = "admin", authorities = {"ADMIN"})
+    void searchCards_ByOwner_ShouldReturnKeysetPages() throws Exception {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long entitiesLoaded = statistics.getEntityLoadCount();
+
+        mockMvc.perform(get("/cards/search")
+                .param("ownerId", testUserId.toString())
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(testCardId))
+                .andExpect(jsonPath("$.content[0].ownerId").value(testUserId))
+                .andExpect(jsonPath("$.nextCursor").value(testCardId));
+
+        mockMvc.perform(get("/cards/search")
+                .param("ownerId", testUserId.toString())
+                .param("afterId", testCardId.toString())
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(secondCardId))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Pages are read as projections, neither cards nor owners are loaded
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(entitiesLoaded);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", authorities = {"ADMIN"})
+    void searchCards_ByLastFourAndBalance_ShouldFilter() throws Exception {
+        Card card = cardRepository.findById(secondCardId).orElseThrow();
+
+        mockMvc.perform(get("/cards/search")
+                .param("lastFour", card.getLastFour())
+                .param("minBalance", "100.00")
+                .param("maxBalance", "600.00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(secondCardId))
+                .andExpect(jsonPath("$.content[0].lastFour").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", authorities = {"ADMIN"})
+    void searchCards_WithoutIndexedFilter_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/cards/search")
+                .param("status", "ACTIVE")
+                .param("minBalance", "100.00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", authorities = {"USER"})
+    void searchCards_WithUserRole_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/cards/search")
+                .param("ownerId", testUserId.toString()))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "testuser", authorities = {"USER"})
     void updateCardStatus_ShouldUpdateStatus() throws Exception {
@@ -292,6 +521,57 @@ public class CardControllerTest {
         assertThat(destinationCard.getBalance()).isEqualByComparingTo(new BigDecimal("500.00"));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void transferMoney_OverTheCardsDailyLimit_ShouldReturnBadRequest() throws Exception {
+        Card card = cardRepository.findById(testCardId).orElseThrow();
+        card.setDailyLimit(new BigDecimal("400.00"));
+        cardRepository.saveAndFlush(card);
+
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setSourceCardId(testCardId);
+        transferRequest.setDestinationCardId(secondCardId);
+        transferRequest.setAmount(new BigDecimal("300.00"));
+        String body = objectMapper.writeValueAsString(transferRequest);
+
+        mockMvc.perform(post("/cards/transfer").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/cards/transfer").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Transfer exceeds the card's daily limit: 400.00"));
+
+        Card sourceCard = cardRepository.findById(testCardId).orElseThrow();
+        assertThat(sourceCard.getBalance()).isEqualByComparingTo(new BigDecimal("700.00"));
+        assertThat(sourceCard.getSpentToday()).isEqualByComparingTo(new BigDecimal("300.00"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", authorities = {"ADMIN"})
+    void updateCardLimits_WithAdminRole_ShouldOverrideTheDailyLimit() throws Exception {
+        UpdateCardLimitsRequest request = new UpdateCardLimitsRequest(new BigDecimal("500.00"), null);
+
+        mockMvc.perform(put("/cards/{id}/limits", testCardId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dailyLimit").value(500.00))
+                .andExpect(jsonPath("$.dailyLimitOverridden").value(true))
+                .andExpect(jsonPath("$.monthlyLimit").value(1000000.00))
+                .andExpect(jsonPath("$.monthlyLimitOverridden").value(false))
+                .andExpect(jsonPath("$.spentToday").value(0));
+
+        assertThat(cardRepository.findById(testCardId).orElseThrow().getDailyLimit()).isEqualByComparingTo(new BigDecimal("500.00"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", authorities = {"USER"})
+    void updateCardLimits_WithUserRole_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(put("/cards/{id}/limits", testCardId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateCardLimitsRequest(new BigDecimal("1000000.00"), null))))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "admin", authorities = {"ADMIN"})
     void deleteCard_WithAdminRole_ShouldDeleteCard() throws Exception {
@@ -19,6 +19,8 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -129,6 +131,30 @@ public class UsersControllerTest {
         assertThat(userResponse.getRoles()).contains("USER");
     }
 
+    @Test
+    @WithMockUser(username = "admin", password = "admin", authorities = {"ADMIN"})
+    void testGetUser_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/users/{id}", testUserId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/users/{id}", testUserId)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        AssignRoleRequest assignRoleRequest = new AssignRoleRequest();
+        assignRoleRequest.setUserId(testUserId);
+        assignRoleRequest.setRole(Role.RoleName.ADMIN);
+        userService.assignRole(assignRoleRequest);
+
+        mockMvc.perform(get("/users/{id}", testUserId)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roles.length()").value(2));
+    }
+
     @Test
     @WithMockUser(username = "admin", password = "admin", authorities = {"ADMIN"})
     void testGetPaginatedUsers() throws Exception {
@@ -0,0 +1,74 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.util.ErrorResponseUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(
+            new MockEnvironment()
+                    .withProperty("app.concurrency-limit.initial-limit", "2")
+                    .withProperty("app.concurrency-limit.min-limit", "2")
+                    .withProperty("app.concurrency-limit.max-limit", "2"),
+            new ErrorResponseUtil(Jackson2ObjectMapperBuilder.json().build()),
+            meterRegistry,
+            1);
+
+    // Starts the response asynchronously, like a StreamingResponseBody or an SseEmitter
+    private final FilterChain asyncChain = (request, response) -> request.startAsync();
+
+    @Test
+    void doFilter_Export_ShouldHoldTheSlotUntilTheStreamCompletes() throws Exception {
+        MockHttpServletRequest export = get("/api/cards/export");
+
+        filter.doFilter(export, new MockHttpServletResponse(), asyncChain);
+
+        assertThat(inFlight()).isEqualTo(1.0);
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void doFilter_ExportsOverTheLimit_ShouldBeRejected() throws Exception {
+        filter.doFilter(get("/api/cards/export"), new MockHttpServletResponse(), asyncChain);
+        filter.doFilter(get("/api/cards/export"), new MockHttpServletResponse(), asyncChain);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(get("/api/cards/export"), response, asyncChain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(inFlight()).isEqualTo(2.0);
+    }
+
+    @Test
+    void doFilter_EventStream_ShouldReleaseTheSlotOnceStarted() throws Exception {
+        MockHttpServletRequest events = get("/api/cards/my/events");
+
+        filter.doFilter(events, new MockHttpServletResponse(), asyncChain);
+
+        assertThat(events.isAsyncStarted()).isTrue();
+        assertThat(inFlight()).isZero();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("concurrency.in-flight").tag("group", "cards").gauge().value();
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath("/api");
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
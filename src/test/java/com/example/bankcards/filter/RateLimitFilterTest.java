@@ -0,0 +1,108 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.limit.InMemoryRateLimitStore;
+import com.example.bankcards.limit.RateLimitProperties;
+import com.example.bankcards.util.ErrorResponseUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Two requests at once, then one every two seconds
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimitProperties(true, RateLimitProperties.Store.MEMORY, 1000, Duration.ofMinutes(10), List.of(
+                    new RateLimitProperties.Rule("transfer", "POST", "/cards/transfer", 2, 0.5))),
+            new InMemoryRateLimitStore(1000, Duration.ofMinutes(10), meterRegistry),
+            new ErrorResponseUtil(objectMapper),
+            meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_OutOfTokens_ShouldRejectWithTooManyRequests() throws Exception {
+        authenticate("alice");
+        assertThat(filter(post("/api/cards/transfer")).getStatus()).isEqualTo(200);
+        assertThat(filter(post("/api/cards/transfer")).getStatus()).isEqualTo(200);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/api/cards/transfer"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getHeader(RateLimitFilter.LIMIT_HEADER)).isEqualTo("2");
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("message").asText()).isEqualTo("Rate limit exceeded, please retry later");
+        assertThat(meterRegistry.get("rate-limit.rejected").tag("rule", "transfer").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_ShouldKeepSeparateBucketsPerUser() throws Exception {
+        authenticate("alice");
+        filter(post("/api/cards/transfer"));
+        filter(post("/api/cards/transfer"));
+        assertThat(filter(post("/api/cards/transfer")).getStatus()).isEqualTo(429);
+
+        authenticate("bob");
+        assertThat(filter(post("/api/cards/transfer")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_ShouldOnlyLimitMatchingAuthenticatedRequests() throws Exception {
+        authenticate("alice");
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = post("/api/cards/transfer");
+            request.setMethod("GET");
+            assertThat(filter(request).getStatus()).isEqualTo(200);
+            assertThat(filter(post("/api/cards/status")).getStatus()).isEqualTo(200);
+        }
+
+        SecurityContextHolder.clearContext();
+        for (int i = 0; i < 5; i++) {
+            assertThat(filter(post("/api/cards/transfer")).getStatus()).isEqualTo(200);
+        }
+        assertThat(meterRegistry.get("rate-limit.rejected").counter().count()).isZero();
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContextPath("/api");
+        return request;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.bankcards.fraud;
+
+import com.example.bankcards.exception.CardException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.AbstractThrowableAssert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VelocityCheckerTest {
+
+    private static final long SECONDS = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void screen_ShouldDenyTransfersOverTheCountLimitUntilTheWindowSlides() {
+        VelocityChecker checker = checker(new VelocityProperties.Rule(
+                "per-minute", VelocityProperties.Metric.TRANSFER_COUNT, Duration.ofMinutes(1), new BigDecimal("3")));
+
+        for (int i = 0; i < 3; i++) {
+            checker.screen(1L, 2L, BigDecimal.ONE);
+        }
+        assertDenied(checker, 1L, 2L, BigDecimal.ONE)
+                .hasMessage("Transfer declined by velocity rule per-minute: too many transfers from this card, please try again later");
+
+        // Other cards have their own counters
+        checker.screen(3L, 2L, BigDecimal.ONE);
+
+        now.addAndGet(30 * SECONDS);
+        assertDenied(checker, 1L, 2L, BigDecimal.ONE);
+
+        now.addAndGet(31 * SECONDS);
+        checker.screen(1L, 2L, BigDecimal.ONE);
+
+        assertThat(meterRegistry.get("fraud.velocity.denied").tag("rule", "per-minute").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("fraud.velocity.decision").tag("outcome", "allow").timer().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("fraud.velocity.decision").tag("outcome", "deny").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void screen_ShouldDenyTransfersOverTheAmountLimit() {
+        VelocityChecker checker = checker(new VelocityProperties.Rule(
+                "per-hour", VelocityProperties.Metric.AMOUNT, Duration.ofHours(1), new BigDecimal("1000.00")));
+
+        checker.screen(1L, 2L, new BigDecimal("600.00"));
+        assertDenied(checker, 1L, 2L, new BigDecimal("400.01"))
+                .hasMessage("Transfer declined by velocity rule per-hour: too much transferred from this card, please try again later");
+        checker.screen(1L, 2L, new BigDecimal("400.00"));
+        assertDenied(checker, 1L, 2L, new BigDecimal("0.01"));
+
+        now.addAndGet(3600 * SECONDS);
+        checker.screen(1L, 2L, new BigDecimal("1000.00"));
+    }
+
+    @Test
+    void screen_ShouldOnlyCountTransfersToNewDestinations() {
+        VelocityChecker checker = checker(new VelocityProperties.Rule(
+                "new-destinations", VelocityProperties.Metric.NEW_DESTINATIONS, Duration.ofHours(1), new BigDecimal("2")));
+
+        checker.screen(1L, 10L, BigDecimal.ONE);
+        checker.screen(1L, 11L, BigDecimal.ONE);
+        checker.screen(1L, 10L, BigDecimal.ONE);
+        checker.screen(1L, 11L, BigDecimal.ONE);
+
+        assertDenied(checker, 1L, 12L, BigDecimal.ONE).hasMessage("Transfer declined by velocity rule new-destinations: "
+                + "too many transfers to new destinations from this card, please try again later");
+    }
+
+    @Test
+    void screen_ShouldForgetDestinationsOfTransfersThatRollBack() {
+        VelocityChecker checker = checker(new VelocityProperties.Rule(
+                "new-destinations", VelocityProperties.Metric.NEW_DESTINATIONS, Duration.ofHours(1), new BigDecimal("2")));
+
+        checker.screen(1L, 10L, BigDecimal.ONE);
+        TransactionSynchronizationManager.initSynchronization();
+        checker.screen(1L, 11L, BigDecimal.ONE);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // 11 is a new destination again, and the rolled back transfer no longer counts
+        checker.screen(1L, 11L, BigDecimal.ONE);
+        assertDenied(checker, 1L, 12L, BigDecimal.ONE);
+    }
+
+    @Test
+    void screen_ShouldTakeBackTransfersThatRollBack() {
+        VelocityChecker checker = checker(new VelocityProperties.Rule(
+                "per-minute", VelocityProperties.Metric.TRANSFER_COUNT, Duration.ofMinutes(1), BigDecimal.ONE));
+
+        TransactionSynchronizationManager.initSynchronization();
+        checker.screen(1L, 2L, BigDecimal.ONE);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        checker.screen(1L, 2L, BigDecimal.ONE);
+        assertDenied(checker, 1L, 2L, BigDecimal.ONE);
+    }
+
+    @Test
+    void screen_WhenDisabled_ShouldAllowEverything() {
+        VelocityChecker checker = new VelocityChecker(properties(false, new VelocityProperties.Rule(
+                "per-minute", VelocityProperties.Metric.TRANSFER_COUNT, Duration.ofMinutes(1), BigDecimal.ZERO)),
+                meterRegistry, now::get);
+
+        checker.screen(1L, 2L, BigDecimal.ONE);
+
+        assertThat(meterRegistry.find("fraud.velocity.decision").timer().count()).isZero();
+    }
+
+    private VelocityChecker checker(VelocityProperties.Rule rule) {
+        return new VelocityChecker(properties(true, rule), meterRegistry, now::get);
+    }
+
+    private static VelocityProperties properties(boolean enabled, VelocityProperties.Rule rule) {
+        return new VelocityProperties(enabled, 1000, Duration.ofHours(2), 12, 16, Duration.ofMillis(1), List.of(rule));
+    }
+
+    private static AbstractThrowableAssert<?, ? extends Throwable> assertDenied(VelocityChecker checker, Long source,
+                                                                               Long destination, BigDecimal amount) {
+        return assertThatThrownBy(() -> checker.screen(source, destination, amount))
+                .isInstanceOfSatisfying(CardException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(CardException.Reason.VELOCITY_LIMIT_EXCEEDED));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void writes_ShouldBeRejectedBeforeReads() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("cards", new VegasLimit(10, 5, 100, 1000), 0.5, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.WRITE)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.WRITE)).isFalse();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.READ)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.READ)).isFalse();
+
+        assertThat(meterRegistry.get("concurrency.rejected").tag("priority", "write").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("concurrency.rejected").tag("priority", "read").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void limit_ShouldGrowWhileLatencyStaysFlatAndShrinkWhenItRises() {
+        VegasLimit limit = new VegasLimit(20, 5, 200, 1000);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("cards", limit, 0.5, meterRegistry);
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(limiter, limit, 10 * MILLIS);
+        }
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(limiter, limit, 100 * MILLIS);
+        }
+        assertThat(limit.getLimit()).isLessThan(grown);
+        assertThat(meterRegistry.get("concurrency.limit.changes").tag("direction", "decrease").counter().count()).isPositive();
+        assertThat(meterRegistry.get("concurrency.limit").tag("group", "cards").gauge().value()).isEqualTo(limit.getLimit());
+    }
+
+    @Test
+    void failures_ShouldBackOffButNotBelowTheMinimum() {
+        VegasLimit limit = new VegasLimit(20, 5, 200, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, 20, true);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    // Fill the limit, so that growing is allowed, and let one request finish with the given latency
+    private static void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, VegasLimit limit, long rttNanos) {
+        int admitted = 0;
+        while (admitted < limit.getLimit() && limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.READ)) {
+            admitted++;
+        }
+        limiter.release(rttNanos, false);
+        for (int i = 1; i < admitted; i++) {
+            limiter.releaseWithoutSample();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final long SECONDS = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final InMemoryRateLimitStore store =
+            new InMemoryRateLimitStore(1000, Duration.ofMinutes(10), new SimpleMeterRegistry(), now::get);
+
+    private final RateLimitProperties.Rule transfer = new RateLimitProperties.Rule("transfer", "POST", "/cards/transfer", 3, 1);
+
+    @Test
+    void tryConsume_ShouldAllowABurstUpToTheCapacityAndThenRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryConsume("user:transfer", transfer)).isTrue();
+        }
+        assertThat(store.tryConsume("user:transfer", transfer)).isFalse();
+
+        now.addAndGet(SECONDS / 2);
+        assertThat(store.tryConsume("user:transfer", transfer)).isFalse();
+
+        now.addAndGet(SECONDS / 2);
+        assertThat(store.tryConsume("user:transfer", transfer)).isTrue();
+        assertThat(store.tryConsume("user:transfer", transfer)).isFalse();
+    }
+
+    @Test
+    void tryConsume_ShouldNotRefillBeyondTheCapacity() {
+        store.tryConsume("user:transfer", transfer);
+        now.addAndGet(60 * SECONDS);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryConsume("user:transfer", transfer)).isTrue();
+        }
+        assertThat(store.tryConsume("user:transfer", transfer)).isFalse();
+    }
+
+    @Test
+    void tryConsume_ShouldKeepSeparateBucketsPerKey() {
+        for (int i = 0; i < 3; i++) {
+            store.tryConsume("alice:transfer", transfer);
+        }
+
+        assertThat(store.tryConsume("alice:transfer", transfer)).isFalse();
+        assertThat(store.tryConsume("bob:transfer", transfer)).isTrue();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankcards.limit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
+class PostgresRateLimitStoreTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final RateLimitProperties.Rule transfer = new RateLimitProperties.Rule("transfer", "POST", "/cards/transfer", 3, 0.5);
+
+    @Test
+    void tryConsume_ShouldRefillAndTakeATokenInOneStatement() {
+        PostgresRateLimitStore store = new PostgresRateLimitStore(jdbcTemplate, Duration.ofMinutes(10));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> parameters = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        when(jdbcTemplate.queryForObject(sql.capture(), parameters.capture(), eq(Boolean.class))).thenReturn(true, false);
+
+        assertThat(store.tryConsume("alice:transfer", transfer)).isTrue();
+        assertThat(store.tryConsume("alice:transfer", transfer)).isFalse();
+
+        // The refill, the take and the decision are one upsert on the row, so concurrent
+        // requests on any node serialize on the row lock instead of reading stale tokens
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Boolean.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+        assertThat(sql.getValue())
+                .contains("ON CONFLICT (bucket_key) DO UPDATE")
+                .contains("LEAST(:capacity, b.tokens + EXTRACT(EPOCH FROM now() - b.refilled_at) * :refillPerSecond)")
+                .contains("RETURNING allowed");
+        assertThat(parameters.getValue().getValue("key")).isEqualTo("alice:transfer");
+        assertThat(parameters.getValue().getValue("capacity")).isEqualTo(3.0);
+        assertThat(parameters.getValue().getValue("refillPerSecond")).isEqualTo(0.5);
+    }
+
+    @Test
+    void tryConsume_WhenTheDatabaseFails_ShouldLetTheRequestThrough() {
+        PostgresRateLimitStore store = new PostgresRateLimitStore(jdbcTemplate, Duration.ofMinutes(10));
+        when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Boolean.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(store.tryConsume("alice:transfer", transfer)).isTrue();
+    }
+
+    @Test
+    void tryConsume_WhileTheDatabaseIsDown_ShouldWarnOncePerOutage(CapturedOutput output) {
+        PostgresRateLimitStore store = new PostgresRateLimitStore(jdbcTemplate, Duration.ofMinutes(10));
+        when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Boolean.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(true)
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(store.tryConsume("alice:transfer", transfer)).isTrue();
+        }
+
+        // Once for the first outage and once for the second, not once per request
+        assertThat(output.getOut().split("letting requests through until the database is back", -1)).hasSize(3);
+        assertThat(output.getOut()).contains("Rate limits are checked again");
+    }
+
+    @Test
+    void deleteIdleBuckets_ShouldDeleteBucketsUnusedForTheIdleExpiry() {
+        PostgresRateLimitStore store = new PostgresRateLimitStore(jdbcTemplate, Duration.ofMinutes(10));
+        ArgumentCaptor<MapSqlParameterSource> parameters = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+
+        store.deleteIdleBuckets();
+
+        verify(jdbcTemplate).update(eq("DELETE FROM rate_limit_buckets WHERE refilled_at < now() - :idleSeconds * INTERVAL '1 second'"),
+                parameters.capture());
+        assertThat(parameters.getValue().getValue("idleSeconds")).isEqualTo(600L);
+    }
+}
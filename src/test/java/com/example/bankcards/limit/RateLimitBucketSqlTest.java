@@ -0,0 +1,114 @@
+package com.example.bankcards.limit;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Runs the bucket arithmetic of {@link PostgresRateLimitStore} on the table its changelog
+ * creates. H2 has no {@code ON CONFLICT ... RETURNING}, so the two branches of the upsert
+ * run as an insert and an update of their own.
+ */
+class RateLimitBucketSqlTest {
+
+    private static final String KEY = "alice:transfer";
+    private static final String INSERT = "INSERT INTO rate_limit_buckets (bucket_key, tokens, refilled_at, allowed) VALUES "
+            + PostgresRateLimitStore.NEW_BUCKET;
+    private static final String UPDATE = "UPDATE rate_limit_buckets AS b SET " + PostgresRateLimitStore.REFILL_AND_TAKE
+            + " WHERE bucket_key = :key";
+
+    // Three tokens at most, one more every two seconds
+    private final MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("key", KEY)
+            .addValue("capacity", 3.0)
+            .addValue("refillPerSecond", 0.5);
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:ratelimitbuckets;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/migration/changelogs/08-rate-limit-buckets.yaml");
+        liquibase.afterPropertiesSet();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets", Map.of());
+    }
+
+    @Test
+    void newBucket_ShouldStartFullLessTheTokenOfItsFirstRequest() {
+        jdbcTemplate.update(INSERT, parameters);
+
+        assertBucket(2.0, true);
+    }
+
+    @Test
+    void refillAndTake_ShouldRefillForTheElapsedTimeAndTakeAToken() {
+        bucket(0.4, 2);
+
+        jdbcTemplate.update(UPDATE, parameters);
+
+        // 0.4 + 2 s * 0.5 = 1.4, less the token taken
+        assertBucket(0.4, true);
+    }
+
+    @Test
+    void refillAndTake_BelowOneToken_ShouldRefuseAndKeepTheRefill() {
+        bucket(0.2, 1);
+
+        jdbcTemplate.update(UPDATE, parameters);
+
+        // 0.2 + 1 s * 0.5 = 0.7: refused, and never driven below zero
+        assertBucket(0.7, false);
+
+        jdbcTemplate.update(UPDATE, parameters);
+        assertBucket(0.7, false);
+    }
+
+    @Test
+    void refillAndTake_AfterALongIdle_ShouldRefillNoMoreThanTheCapacity() {
+        bucket(0.0, 3600);
+
+        jdbcTemplate.update(UPDATE, parameters);
+
+        assertBucket(2.0, true);
+    }
+
+    @Test
+    void refillAndTake_DrainedByABurst_ShouldAllowTheCapacityAndThenRefuse() {
+        jdbcTemplate.update(INSERT, parameters);
+        jdbcTemplate.update(UPDATE, parameters);
+        jdbcTemplate.update(UPDATE, parameters);
+        assertBucket(0.0, true);
+
+        jdbcTemplate.update(UPDATE, parameters);
+        assertBucket(0.0, false);
+    }
+
+    private void bucket(double tokens, long secondsSinceRefill) {
+        jdbcTemplate.update("INSERT INTO rate_limit_buckets (bucket_key, tokens, refilled_at, allowed) VALUES (:key, :tokens, :refilledAt, TRUE)",
+                new MapSqlParameterSource()
+                        .addValue("key", KEY)
+                        .addValue("tokens", tokens)
+                        .addValue("refilledAt", OffsetDateTime.now().minusSeconds(secondsSinceRefill)));
+    }
+
+    private void assertBucket(double tokens, boolean allowed) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT tokens, allowed FROM rate_limit_buckets WHERE bucket_key = :key", parameters);
+        // The time the test itself takes refills a little, up to 0.1 tokens in 200 ms
+        assertThat(((Number) row.get("TOKENS")).doubleValue()).isCloseTo(tokens, within(0.1));
+        assertThat(row.get("ALLOWED")).isEqualTo(allowed);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.repository.OutboxEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        // A database of its own: these tests commit
+        "spring.datasource.url=jdbc:h2:mem:outboxdb",
+        "app.outbox.relay.enabled=true",
+        "app.outbox.relay.batch-size=2",
+        "app.outbox.relay.poll-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxEntryRepository outboxEntryRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxEntryRepository.deleteAll();
+        sink.clear();
+    }
+
+    @Test
+    void poll_ShouldPublishCommittedEventsInOrderAndRemoveThem() {
+        for (long cardId = 1; cardId <= 3; cardId++) {
+            long id = cardId;
+            transactionTemplate.executeWithoutResult(status -> outboxWriter.append(CardEvents.AGGREGATE_TYPE, id,
+                    new CardEvents.TransferCompleted(id, 10L, 7L, new BigDecimal("5.00"), BigDecimal.ONE, BigDecimal.TEN)));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxWriter.append(CardEvents.AGGREGATE_TYPE, 4L, new CardEvents.CardStatusChanged(4L, 7L, null, null));
+            status.setRollbackOnly();
+        });
+
+        // Two full batches of two and one, within a single poll
+        outboxRelay.poll();
+
+        List<OutboxMessage> messages = sink.getMessages();
+        assertThat(messages).extracting(OutboxMessage::aggregateId).containsExactly(1L, 2L, 3L);
+        assertThat(messages).extracting(OutboxMessage::eventType).containsOnly("TransferCompleted");
+        assertThat(messages.get(0).payload()).contains("\"sourceCardId\":1").contains("\"amount\":5.00");
+        assertThat(outboxEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void relayBatch_WhenTheSinkFails_ShouldKeepTheBatch() {
+        transactionTemplate.executeWithoutResult(status -> outboxWriter.append(CardEvents.AGGREGATE_TYPE, 1L,
+                new CardEvents.CardStatusChanged(1L, 7L, null, null)));
+        OutboxRelay failingRelay = new OutboxRelay(jdbcTemplate, transactionTemplate, batch -> {
+            throw new IllegalStateException("Broker unavailable");
+        }, 2, 1, false, new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, failingRelay::relayBatch);
+
+        assertThat(outboxEntryRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void append_OutsideATransaction_ShouldBeRejected() {
+        assertThrows(IllegalTransactionStateException.class, () -> outboxWriter.append(CardEvents.AGGREGATE_TYPE, 1L,
+                new CardEvents.CardStatusChanged(1L, 7L, null, null)));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.bankcards.schema;
+
+import com.example.bankcards.config.SchedulingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedFiles;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.javapoet.ClassName;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaModeEnvironmentPostProcessorTest {
+
+    private final SchemaModeEnvironmentPostProcessor postProcessor = new SchemaModeEnvironmentPostProcessor();
+
+    @Test
+    void verifyMode_ShouldDisableLiquibase() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(SchemaMode.PROPERTY, "verify")
+                .withProperty("spring.liquibase.enabled", "true");
+
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertThat(environment.getProperty("spring.liquibase.enabled")).isEqualTo("false");
+    }
+
+    @Test
+    void migrateOnlyMode_ShouldStartWithoutWebServerOrJobs() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(SchemaMode.PROPERTY, "MIGRATE_ONLY")
+                .withProperty("app.datasource.replicas.enabled", "true");
+
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertThat(environment.getProperty(SchemaMode.PROPERTY)).isEqualTo("migrate-only");
+        assertThat(environment.getProperty("spring.main.web-application-type")).isEqualTo("none");
+        assertThat(environment.getProperty("app.card.expiration-sweeper.enabled")).isEqualTo("false");
+        assertThat(environment.getProperty("app.scheduling.enabled")).isEqualTo("false");
+        assertThat(environment.getProperty("app.datasource.replicas.enabled")).isEqualTo("false");
+    }
+
+    @Test
+    void migrateOnlyMode_ShouldNotRegisterScheduledJobs() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(SchemaMode.PROPERTY, "migrate-only");
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        new ApplicationContextRunner()
+                .withPropertyValues("app.scheduling.enabled=" + environment.getProperty("app.scheduling.enabled"))
+                .withUserConfiguration(SchedulingConfig.class)
+                .run(context -> assertThat(context).doesNotHaveBean(ScheduledAnnotationBeanPostProcessor.class));
+        new ApplicationContextRunner()
+                .withUserConfiguration(SchedulingConfig.class)
+                .run(context -> assertThat(context).hasSingleBean(ScheduledAnnotationBeanPostProcessor.class));
+    }
+
+    @Test
+    void defaultMode_ShouldLeaveLiquibaseAlone() {
+        MockEnvironment environment = new MockEnvironment();
+
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertThat(environment.getProperty(SchemaMode.PROPERTY)).isEqualTo("migrate");
+        assertThat(environment.getProperty("spring.liquibase.enabled")).isNull();
+    }
+
+    @Test
+    void unknownMode_ShouldFail() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(SchemaMode.PROPERTY, "skip");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> postProcessor.postProcessEnvironment(environment, new SpringApplication()));
+    }
+
+    @Test
+    void aotBuild_ShouldRecordTheSchemaMode() throws IOException {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(SchemaMode.PROPERTY, "verify");
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("environment", environment);
+        InMemoryGeneratedFiles generatedFiles = new InMemoryGeneratedFiles();
+        DefaultGenerationContext generationContext = new DefaultGenerationContext(
+                new ClassNameGenerator(ClassName.get(getClass())), generatedFiles);
+
+        new SchemaModeAotProcessor().processAheadOfTime(beanFactory).applyTo(generationContext, null);
+
+        assertThat(generatedFiles.getGeneratedFileContent(GeneratedFiles.Kind.RESOURCE, SchemaModeAotProcessor.BUILD_MODE_RESOURCE))
+                .isEqualTo(SchemaMode.PROPERTY + "=verify\n");
+        assertThat(RuntimeHintsPredicates.resource().forResource(SchemaModeAotProcessor.BUILD_MODE_RESOURCE))
+                .accepts(generationContext.getRuntimeHints());
+    }
+
+    @Test
+    void aotRun_InTheModeOfTheBuild_ShouldStart() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(SchemaMode.PROPERTY, "verify");
+
+        new SchemaModeEnvironmentPostProcessor(true, buildMode("verify"))
+                .postProcessEnvironment(environment, new SpringApplication());
+
+        assertThat(environment.getProperty("spring.liquibase.enabled")).isEqualTo("false");
+    }
+
+    @Test
+    void aotRun_InAnotherModeThanTheBuild_ShouldFail() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(SchemaMode.PROPERTY, "migrate-only");
+        SchemaModeEnvironmentPostProcessor aotPostProcessor = new SchemaModeEnvironmentPostProcessor(true, buildMode("verify"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> aotPostProcessor.postProcessEnvironment(environment, new SpringApplication()));
+        assertThat(exception.getMessage()).contains("SCHEMA_MODE=migrate-only");
+    }
+
+    private static ByteArrayResource buildMode(String mode) {
+        return new ByteArrayResource((SchemaMode.PROPERTY + "=" + mode + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
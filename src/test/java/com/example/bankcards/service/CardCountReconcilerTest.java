@@ -0,0 +1,148 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.CreateUserRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.exception.CardException;
+import com.example.bankcards.repository.RoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        // A database of its own: the cards commit
+        "spring.datasource.url=jdbc:h2:mem:reconcilerdb",
+        "app.card.count-reconciler.enabled=true"
+})
+@ActiveProfiles("test")
+class CardCountReconcilerTest {
+
+    @Autowired
+    private CardCountReconciler reconciler;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.card.max-per-user}")
+    private int maxCardsPerUser;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        if (roleRepository.findByName(Role.RoleName.USER).isEmpty()) {
+            Role userRole = new Role();
+            userRole.setName(Role.RoleName.USER);
+            roleRepository.save(userRole);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftedCounters() {
+        Long userId = createUser("drifted");
+        createCard(userId);
+        createCard(userId);
+        jdbcTemplate.update("UPDATE users SET card_count = 5 WHERE id = ?", userId);
+
+        reconciler.reconcile();
+
+        assertThat(cardCount(userId)).isEqualTo(2);
+    }
+
+    @Test
+    void reconcile_ConcurrentlyWithCreateCard_ShouldCountTheNewCard() throws Exception {
+        Long userId = createUser("issued");
+        for (int i = 0; i < maxCardsPerUser - 1; i++) {
+            createCard(userId);
+        }
+        // The counter trails the cards by one, so the user is a candidate for correction
+        jdbcTemplate.update("UPDATE users SET card_count = card_count - 1 WHERE id = ?", userId);
+
+        // Issue the last card allowed in a transaction that stays open until the reconcile has started
+        CountDownLatch created = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Future<?> create = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            createCard(userId);
+            created.countDown();
+            await(commit);
+        }));
+        assertThat(created.await(30, TimeUnit.SECONDS)).isTrue();
+
+        Future<?> reconcile = executor.submit(() -> reconciler.reconcile());
+        // Give the reconcile time to queue on the user's row lock
+        Thread.sleep(500);
+        commit.countDown();
+        create.get(30, TimeUnit.SECONDS);
+        reconcile.get(30, TimeUnit.SECONDS);
+
+        assertThat(cardCount(userId)).isEqualTo(maxCardsPerUser);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards WHERE user_id = ?", Integer.class, userId))
+                .isEqualTo(maxCardsPerUser);
+        assertThatThrownBy(() -> createCard(userId))
+                .isInstanceOfSatisfying(CardException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(CardException.Reason.CARD_LIMIT_REACHED));
+    }
+
+    private int cardCount(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT card_count FROM users WHERE id = ?", Integer.class, userId);
+    }
+
+    private Long createUser(String username) {
+        CreateUserRequest createUserRequest = new CreateUserRequest();
+        createUserRequest.setUsername(username);
+        createUserRequest.setPassword("password");
+        return userService.createUser(createUserRequest).getId();
+    }
+
+    private void createCard(Long userId) {
+        CreateCardRequest request = new CreateCardRequest();
+        request.setUserId(userId);
+        request.setInitialBalance(new BigDecimal("100.00"));
+        cardService.createCard(request);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
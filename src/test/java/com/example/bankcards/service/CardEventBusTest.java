@@ -0,0 +1,60 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardEventBusTest {
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private CardEventBus cardEventBus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Drain tasks are queued and run by the test, so buffers can fill up in between
+        cardEventBus = new CardEventBus(pendingTasks::add, meterRegistry, 2, 60_000);
+    }
+
+    @Test
+    void publish_FullBuffer_ShouldDropOldestChange() {
+        cardEventBus.subscribe("testuser");
+
+        cardEventBus.publish("testuser", card(1L));
+        cardEventBus.publish("testuser", card(2L));
+        cardEventBus.publish("testuser", card(3L));
+
+        assertThat(meterRegistry.counter("cards.events.dropped").count()).isEqualTo(1.0);
+        // Only one drain is scheduled however many changes arrive while it is pending
+        assertThat(pendingTasks).hasSize(1);
+    }
+
+    @Test
+    void publish_ShouldOnlyReachOwnersSubscriptions() {
+        cardEventBus.subscribe("testuser");
+        cardEventBus.subscribe("otheruser");
+        runPendingTasks();
+
+        cardEventBus.publish("testuser", card(1L));
+
+        assertThat(pendingTasks).hasSize(1);
+        assertThat(cardEventBus.getSubscriberCount()).isEqualTo(2);
+    }
+
+    private void runPendingTasks() {
+        List<Runnable> tasks = new ArrayList<>(pendingTasks);
+        pendingTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private CardDto card(Long id) {
+        return CardDto.builder().id(id).build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.CreateUserRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.OutboxEntry;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.outbox.CardEvents;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.OutboxEntryRepository;
+import com.example.bankcards.repository.RoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        // A database of its own: every chunk commits
+        "spring.datasource.url=jdbc:h2:mem:expirationdb",
+        "app.card.expiration-sweeper.enabled=true",
+        "app.card.expiration-sweeper.batch-size=2",
+        "app.card.expiration-sweeper.pause-ms=0"
+})
+@ActiveProfiles("test")
+class CardExpirationSweeperTest {
+
+    @Autowired
+    private CardExpirationSweeper sweeper;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private OutboxEntryRepository outboxEntryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        outboxEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        if (roleRepository.findByName(Role.RoleName.USER).isEmpty()) {
+            Role userRole = new Role();
+            userRole.setName(Role.RoleName.USER);
+            roleRepository.save(userRole);
+        }
+    }
+
+    @Test
+    void sweep_ShouldRecordStatusChangeForEveryExpiredCard() {
+        Long userId = createUser();
+        Long firstCardId = createCard(userId, LocalDate.now().minusDays(1), Card.CardStatus.ACTIVE);
+        Long secondCardId = createCard(userId, LocalDate.now().minusMonths(1), Card.CardStatus.ACTIVE);
+
+        sweeper.sweep();
+
+        List<OutboxEntry> events = outboxEntryRepository.findAll().stream()
+                .filter(entry -> entry.getEventType().equals(CardEvents.CardStatusChanged.class.getSimpleName()))
+                .toList();
+        assertThat(events).extracting(OutboxEntry::getAggregateId).containsExactlyInAnyOrder(firstCardId, secondCardId);
+        assertThat(events).extracting(OutboxEntry::getPayload).containsExactlyInAnyOrder(
+                statusChanged(firstCardId, userId), statusChanged(secondCardId, userId));
+    }
+
+    @Test
+    void sweep_ShouldExpireOverdueActiveCardsInBatchesAndLeaveOtherCardsAlone() {
+        // Spread over two holders, who may have five cards each
+        Long firstUserId = createUser();
+        Long secondUserId = createUser();
+        List<Long> overdueCardIds = List.of(
+                createCard(firstUserId, LocalDate.now().minusDays(1), Card.CardStatus.ACTIVE),
+                createCard(firstUserId, LocalDate.now().minusDays(2), Card.CardStatus.ACTIVE),
+                createCard(firstUserId, LocalDate.now().minusDays(3), Card.CardStatus.ACTIVE),
+                createCard(secondUserId, LocalDate.now().minusYears(1), Card.CardStatus.ACTIVE),
+                createCard(secondUserId, LocalDate.now().minusDays(1), Card.CardStatus.ACTIVE));
+        Long currentCardId = createCard(firstUserId, LocalDate.now(), Card.CardStatus.ACTIVE);
+        Long blockedCardId = createCard(secondUserId, LocalDate.now().minusDays(1), Card.CardStatus.BLOCKED);
+        double expiredBefore = meterRegistry.get("cards.expired").counter().count();
+
+        // A chunk takes no more than the batch size
+        assertThat(cardService.expireOverdueCards(2)).isEqualTo(2);
+        assertThat(statusCount(Card.CardStatus.EXPIRED)).isEqualTo(2);
+
+        sweeper.sweep();
+
+        assertThat(cardRepository.findAllById(overdueCardIds))
+                .extracting(Card::getStatus).containsOnly(Card.CardStatus.EXPIRED);
+        assertThat(cardRepository.findById(currentCardId).orElseThrow().getStatus()).isEqualTo(Card.CardStatus.ACTIVE);
+        assertThat(cardRepository.findById(blockedCardId).orElseThrow().getStatus()).isEqualTo(Card.CardStatus.BLOCKED);
+        assertThat(meterRegistry.get("cards.expired").counter().count() - expiredBefore).isEqualTo(3);
+
+        // Nothing is left for another run
+        sweeper.sweep();
+        assertThat(statusCount(Card.CardStatus.EXPIRED)).isEqualTo(5);
+        assertThat(meterRegistry.get("cards.expired").counter().count() - expiredBefore).isEqualTo(3);
+    }
+
+    private long statusCount(Card.CardStatus status) {
+        return cardRepository.findAll().stream().filter(card -> card.getStatus() == status).count();
+    }
+
+    private static String statusChanged(Long cardId, Long userId) {
+        return "{\"cardId\":" + cardId + ",\"ownerId\":" + userId + ",\"previousStatus\":\"ACTIVE\",\"status\":\"EXPIRED\"}";
+    }
+
+    private Long createUser() {
+        CreateUserRequest createUserRequest = new CreateUserRequest();
+        createUserRequest.setUsername("holder" + USERS.incrementAndGet());
+        createUserRequest.setPassword("password");
+        return userService.createUser(createUserRequest).getId();
+    }
+
+    private Long createCard(Long userId, LocalDate expirationDate, Card.CardStatus status) {
+        CreateCardRequest createCardRequest = new CreateCardRequest();
+        createCardRequest.setUserId(userId);
+        createCardRequest.setInitialBalance(new BigDecimal("100.00"));
+        Long cardId = cardService.createCard(createCardRequest).getId();
+
+        Card card = cardRepository.findById(cardId).orElseThrow();
+        card.setExpirationDate(expirationDate);
+        card.setStatus(status);
+        cardRepository.save(card);
+        return cardId;
+    }
+}
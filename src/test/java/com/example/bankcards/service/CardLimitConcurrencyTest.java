@@ -0,0 +1,110 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.CreateUserRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.exception.CardException;
+import com.example.bankcards.repository.RoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        // A database of its own: the cards commit
+        "spring.datasource.url=jdbc:h2:mem:cardlimitdb"
+})
+@ActiveProfiles("test")
+class CardLimitConcurrencyTest {
+
+    private static final int CREATES = 16;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.card.max-per-user}")
+    private int maxCardsPerUser;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CREATES);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void createCard_Concurrently_ShouldNotExceedTheCardLimit() throws Exception {
+        if (roleRepository.findByName(Role.RoleName.USER).isEmpty()) {
+            Role userRole = new Role();
+            userRole.setName(Role.RoleName.USER);
+            roleRepository.save(userRole);
+        }
+        CreateUserRequest createUserRequest = new CreateUserRequest();
+        createUserRequest.setUsername("collector");
+        createUserRequest.setPassword("password");
+        Long userId = userService.createUser(createUserRequest).getId();
+
+        CreateCardRequest request = new CreateCardRequest();
+        request.setUserId(userId);
+        request.setInitialBalance(new BigDecimal("100.00"));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < CREATES; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return create(request);
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(30, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+
+        assertThat(created).isEqualTo(maxCardsPerUser);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards WHERE user_id = ?", Integer.class, userId))
+                .isEqualTo(maxCardsPerUser);
+        assertThat(jdbcTemplate.queryForObject("SELECT card_count FROM users WHERE id = ?", Integer.class, userId))
+                .isEqualTo(maxCardsPerUser);
+    }
+
+    /**
+     * Whether the card was created or refused at the limit; anything else fails the test.
+     */
+    private boolean create(CreateCardRequest request) {
+        try {
+            cardService.createCard(request);
+            return true;
+        } catch (CardException e) {
+            assertThat(e.getReason()).isEqualTo(CardException.Reason.CARD_LIMIT_REACHED);
+            return false;
+        }
+    }
+}
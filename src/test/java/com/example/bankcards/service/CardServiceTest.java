@@ -1,22 +1,35 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.CacheInvalidationPublisher;
+import com.example.bankcards.dto.CardChangedEvent;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardVersion;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.UpdateCardLimitsRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.CardException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.fraud.VelocityChecker;
+import com.example.bankcards.outbox.CardEvents;
+import com.example.bankcards.outbox.OutboxWriter;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.CardNumberEncryptor;
+import com.example.bankcards.util.ETags;
+import com.example.bankcards.util.RequestCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,10 +42,13 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -51,6 +67,29 @@ class CardServiceTest {
     @Mock
     private CardNumberEncryptor cardNumberEncryptor;
 
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry(), true);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CardMetrics cardMetrics = new CardMetrics(meterRegistry);
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private VelocityChecker velocityChecker;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -103,6 +142,7 @@ class CardServiceTest {
         testCard.setExpirationDate(LocalDate.now().plusYears(3));
         testCard.setStatus(Card.CardStatus.ACTIVE);
         testCard.setBalance(new BigDecimal("1000.00"));
+        testCard.setUpdatedAt(LocalDateTime.now());
 
         secondCard = new Card();
         secondCard.setId(2L);
@@ -112,11 +152,15 @@ class CardServiceTest {
         secondCard.setExpirationDate(LocalDate.now().plusYears(3));
         secondCard.setStatus(Card.CardStatus.ACTIVE);
         secondCard.setBalance(new BigDecimal("500.00"));
+        secondCard.setUpdatedAt(LocalDateTime.now());
 
         // Set up mock configuration values
         ReflectionTestUtils.setField(cardService, "maxCardsPerUser", 5);
         ReflectionTestUtils.setField(cardService, "defaultExpirationYears", 3);
         ReflectionTestUtils.setField(cardService, "maxTransferAmount", new BigDecimal("100000.00"));
+        ReflectionTestUtils.setField(cardService, "dailyTransferLimit", new BigDecimal("250.00"));
+        ReflectionTestUtils.setField(cardService, "monthlyTransferLimit", new BigDecimal("1000.00"));
+        ReflectionTestUtils.setField(cardService, "exportClearInterval", 1000);
 
         // Setup security context
         SecurityContextHolder.setContext(securityContext);
@@ -130,7 +174,7 @@ class CardServiceTest {
         request.setInitialBalance(new BigDecimal("1000.00"));
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(cardRepository.countByOwner(testUser)).thenReturn(0L);
+        when(userRepository.incrementCardCount(1L, 5)).thenReturn(1);
         when(cardNumberEncryptor.encrypt(any())).thenReturn("encrypted-card-number");
         when(cardRepository.save(any(Card.class))).thenReturn(testCard);
 
@@ -144,9 +188,10 @@ class CardServiceTest {
         assertThat(result.getBalance()).isEqualTo(new BigDecimal("1000.00"));
         
         verify(userRepository).findById(1L);
-        verify(cardRepository).countByOwner(testUser);
+        verify(userRepository).incrementCardCount(1L, 5);
         verify(cardNumberEncryptor).encrypt(any());
         verify(cardRepository).save(any(Card.class));
+        verify(outboxWriter).append(eq(CardEvents.AGGREGATE_TYPE), eq(testCard.getId()), any(CardEvents.CardCreated.class));
     }
 
     @Test
@@ -173,20 +218,21 @@ class CardServiceTest {
         request.setInitialBalance(new BigDecimal("1000.00"));
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(cardRepository.countByOwner(testUser)).thenReturn(5L);
+        when(userRepository.incrementCardCount(1L, 5)).thenReturn(0);
 
         // Act & Assert
-        assertThrows(CardException.class, () -> cardService.createCard(request));
+        CardException exception = assertThrows(CardException.class, () -> cardService.createCard(request));
         
+        assertThat(exception.getReason()).isEqualTo(CardException.Reason.CARD_LIMIT_REACHED);
         verify(userRepository).findById(1L);
-        verify(cardRepository).countByOwner(testUser);
-        verifyNoInteractions(cardNumberEncryptor);
+        verify(userRepository).incrementCardCount(1L, 5);
+        verifyNoInteractions(cardRepository, cardNumberEncryptor);
     }
 
     @Test
     void getCard_AsOwner_ShouldReturnCard() {
         // Arrange
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findWithOwnerById(1L)).thenReturn(Optional.of(testCard));
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn("testuser");
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
@@ -199,16 +245,33 @@ class CardServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getMaskedNumber()).isEqualTo("**** **** **** 3456");
         
-        verify(cardRepository).findById(1L);
+        verify(cardRepository).findWithOwnerById(1L);
         verify(securityContext).getAuthentication();
         verify(authentication).getName();
         verify(userRepository).findByUsername("testuser");
     }
 
+    @Test
+    void getCardETag_ShouldUseVersionQueryOnly() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_789);
+        when(cardRepository.findVersionById(1L)).thenReturn(Optional.of(new CardVersion(1L, updatedAt)));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        Optional<String> eTag = cardService.getCardETag(1L);
+
+        // Assert
+        assertThat(eTag).contains(ETags.card(1L, updatedAt.withNano(123_456_000)));
+        verify(cardRepository, never()).findWithOwnerById(any());
+    }
+
     @Test
     void getCard_AsAdmin_ShouldReturnCard() {
         // Arrange
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findWithOwnerById(1L)).thenReturn(Optional.of(testCard));
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn("admin");
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(adminUser));
@@ -220,7 +283,7 @@ class CardServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         
-        verify(cardRepository).findById(1L);
+        verify(cardRepository).findWithOwnerById(1L);
         verify(securityContext).getAuthentication();
         verify(authentication).getName();
         verify(userRepository).findByUsername("admin");
@@ -233,7 +296,7 @@ class CardServiceTest {
         otherUser.setId(3L);
         otherUser.setUsername("otheruser");
         
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findWithOwnerById(1L)).thenReturn(Optional.of(testCard));
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn("otheruser");
         when(userRepository.findByUsername("otheruser")).thenReturn(Optional.of(otherUser));
@@ -241,7 +304,7 @@ class CardServiceTest {
         // Act & Assert
         assertThrows(AccessDeniedException.class, () -> cardService.getCard(1L));
         
-        verify(cardRepository).findById(1L);
+        verify(cardRepository).findWithOwnerById(1L);
         verify(securityContext).getAuthentication();
         verify(authentication).getName();
         verify(userRepository).findByUsername("otheruser");
@@ -293,12 +356,25 @@ class CardServiceTest {
         // Assert
         assertThat(testCard.getBalance()).isEqualTo(new BigDecimal("900.00"));
         assertThat(secondCard.getBalance()).isEqualTo(new BigDecimal("600.00"));
+        assertThat(testCard.getSpentDay()).isEqualTo(LocalDate.now());
+        assertThat(testCard.getSpentToday()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(testCard.getSpentThisMonth()).isEqualTo(new BigDecimal("100.00"));
         
         verify(cardRepository, times(2)).findCardForUpdate(any());
         verify(securityContext).getAuthentication();
         verify(authentication).getName();
         verify(userRepository).findByUsername("testuser");
         verify(cardRepository, times(2)).save(any(Card.class));
+        verify(entityManager).flush();
+        verify(cacheInvalidationPublisher).cardChanged(1L);
+        verify(cacheInvalidationPublisher).cardChanged(2L);
+        verify(eventPublisher, times(2)).publishEvent(any(CardChangedEvent.class));
+        verify(outboxWriter).append(CardEvents.AGGREGATE_TYPE, 1L, new CardEvents.TransferCompleted(
+                1L, 2L, 1L, new BigDecimal("100.00"), new BigDecimal("900.00"), new BigDecimal("600.00")));
+
+        assertThat(meterRegistry.get("cards.transfer.phase").tag("phase", "lock").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cards.transfer.phase").tag("phase", "update").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cards.transfer").tag("outcome", "success").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -327,5 +403,155 @@ class CardServiceTest {
         verify(authentication).getName();
         verify(userRepository).findByUsername("testuser");
         verify(cardRepository, never()).save(any(Card.class));
+        verifyNoInteractions(cacheInvalidationPublisher);
+        verifyNoInteractions(eventPublisher);
+        verifyNoInteractions(outboxWriter);
+
+        assertThat(meterRegistry.get("cards.transfer").tag("outcome", "insufficient_funds").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("cards.transfer").tag("outcome", "success").timer()).isNull();
+    }
+
+    @Test
+    void transferMoney_OverDailyLimit_ShouldThrowException() {
+        // Arrange
+        TransferRequest request = new TransferRequest();
+        request.setSourceCardId(1L);
+        request.setDestinationCardId(2L);
+        request.setAmount(new BigDecimal("100.00"));
+        testCard.setSpentDay(LocalDate.now());
+        testCard.setSpentToday(new BigDecimal("200.00"));
+        
+        when(cardRepository.findCardForUpdate(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findCardForUpdate(2L)).thenReturn(Optional.of(secondCard));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        CardException exception = assertThrows(CardException.class, () -> cardService.transferMoney(request));
+        assertThat(exception.getReason()).isEqualTo(CardException.Reason.SPEND_LIMIT_EXCEEDED);
+        assertThat(exception.getMessage()).isEqualTo("Transfer exceeds the card's daily limit: 250.00");
+        
+        assertThat(testCard.getBalance()).isEqualTo(new BigDecimal("1000.00"));
+        assertThat(testCard.getSpentToday()).isEqualTo(new BigDecimal("200.00"));
+        verify(cardRepository, never()).save(any(Card.class));
+        verifyNoInteractions(velocityChecker);
+    }
+
+    @Test
+    void transferMoney_AfterADayChange_ShouldStartANewDailyTotal() {
+        // Arrange
+        TransferRequest request = new TransferRequest();
+        request.setSourceCardId(1L);
+        request.setDestinationCardId(2L);
+        request.setAmount(new BigDecimal("100.00"));
+        // Yesterday's total is stale; the month's total still counts unless yesterday was in another month
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        testCard.setSpentDay(yesterday);
+        testCard.setSpentToday(new BigDecimal("250.00"));
+        testCard.setSpentMonth(yesterday.withDayOfMonth(1));
+        testCard.setSpentThisMonth(new BigDecimal("250.00"));
+        testCard.setDailyLimit(new BigDecimal("100.00"));
+        
+        when(cardRepository.findCardForUpdate(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findCardForUpdate(2L)).thenReturn(Optional.of(secondCard));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        cardService.transferMoney(request);
+
+        // Assert
+        BigDecimal expectedMonth = yesterday.getMonth() == LocalDate.now().getMonth()
+                ? new BigDecimal("350.00") : new BigDecimal("100.00");
+        assertThat(testCard.getSpentDay()).isEqualTo(LocalDate.now());
+        assertThat(testCard.getSpentToday()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(testCard.getSpentThisMonth()).isEqualTo(expectedMonth);
+    }
+
+    @Test
+    void updateCardLimits_DailyOverDefaultMonthly_ShouldThrowException() {
+        // The monthly limit is left at its default of 1000.00
+        UpdateCardLimitsRequest request = new UpdateCardLimitsRequest(new BigDecimal("1500.00"), null);
+
+        CardException exception = assertThrows(CardException.class, () -> cardService.updateCardLimits(1L, request));
+
+        assertThat(exception.getReason()).isEqualTo(CardException.Reason.INVALID_REQUEST);
+        assertThat(exception.getMessage()).isEqualTo("Daily limit 1500.00 cannot exceed the monthly limit 1000.00");
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void transferMoney_DeniedByVelocityRule_ShouldThrowException() {
+        // Arrange
+        TransferRequest request = new TransferRequest();
+        request.setSourceCardId(1L);
+        request.setDestinationCardId(2L);
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(cardRepository.findCardForUpdate(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findCardForUpdate(2L)).thenReturn(Optional.of(secondCard));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        doThrow(new CardException(CardException.Reason.VELOCITY_LIMIT_EXCEEDED, "Transfer declined"))
+                .when(velocityChecker).screen(1L, 2L, new BigDecimal("100.00"));
+
+        // Act & Assert
+        CardException exception = assertThrows(CardException.class, () -> cardService.transferMoney(request));
+        assertThat(exception.getReason()).isEqualTo(CardException.Reason.VELOCITY_LIMIT_EXCEEDED);
+
+        // Verify balances are unchanged
+        assertThat(testCard.getBalance()).isEqualTo(new BigDecimal("1000.00"));
+        assertThat(secondCard.getBalance()).isEqualTo(new BigDecimal("500.00"));
+
+        verify(cardRepository, never()).save(any(Card.class));
+        verifyNoInteractions(outboxWriter);
+
+        assertThat(meterRegistry.get("cards.transfer").tag("outcome", "velocity_limit_exceeded").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void transferMoney_ExpiredSourceCard_ShouldThrowException() {
+        // Arrange
+        TransferRequest request = new TransferRequest();
+        request.setSourceCardId(1L);
+        request.setDestinationCardId(2L);
+        request.setAmount(new BigDecimal("100.00"));
+        testCard.setExpirationDate(LocalDate.now().minusDays(1));
+
+        when(cardRepository.findCardForUpdate(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findCardForUpdate(2L)).thenReturn(Optional.of(secondCard));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        CardException exception = assertThrows(CardException.class, () -> cardService.transferMoney(request));
+        assertThat(exception.getMessage()).isEqualTo("Source card has expired");
+        assertThat(exception.getReason()).isEqualTo(CardException.Reason.CARD_EXPIRED);
+
+        assertThat(testCard.getBalance()).isEqualTo(new BigDecimal("1000.00"));
+        verify(cardRepository, never()).save(any(Card.class));
+    }
+
+    @Test
+    void exportCards_ShouldStreamDtosAndDetachEntities() {
+        // Arrange
+        when(cardRepository.streamAllWithOwner()).thenReturn(Stream.of(testCard, secondCard));
+        List<CardDto> exported = new ArrayList<>();
+
+        // Act
+        long count = cardService.exportCards(exported::add);
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).extracting(CardDto::getId).containsExactly(1L, 2L);
+        assertThat(exported).extracting(CardDto::getOwnerUsername).containsOnly("testuser");
+
+        verify(entityManager).detach(testCard);
+        verify(entityManager).detach(secondCard);
+        verify(entityManager, never()).clear();
     }
-}
\ No newline at end of file
+}
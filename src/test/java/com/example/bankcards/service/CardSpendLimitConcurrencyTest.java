@@ -0,0 +1,172 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.CreateUserRequest;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.exception.CardException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        // A database of its own: the transfers commit
+        "spring.datasource.url=jdbc:h2:mem:spendlimitsdb",
+        "app.card.daily-transfer-limit=1000.00",
+        // Transfers per minute would otherwise be denied before the spend limit
+        "app.fraud.velocity.enabled=false"
+})
+@ActiveProfiles("test")
+class CardSpendLimitConcurrencyTest {
+
+    private static final int TRANSFERS = 16;
+    private static final BigDecimal AMOUNT = new BigDecimal("100.00");
+    private static final int MAX_RETRIES = 3;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(TRANSFERS);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private final AtomicInteger retries = new AtomicInteger();
+
+    @Test
+    void transferMoney_Concurrently_ShouldNotExceedTheDailyLimit() throws Exception {
+        Long userId = createSpender("spender");
+        Long sourceCardId = createCard(userId);
+        Long destinationCardId = createCard(userId);
+
+        List<Boolean> outcomes = runConcurrently("spender", i -> new TransferRequest(sourceCardId, destinationCardId, AMOUNT));
+
+        // Ten transfers of 100.00 fit the daily limit of 1000.00, whichever commit first
+        assertThat(outcomes).filteredOn(succeeded -> succeeded).hasSize(10);
+        // Transfers queue on the row locks rather than failing and being retried
+        assertThat(retries.get()).isZero();
+        Card sourceCard = cardRepository.findById(sourceCardId).orElseThrow();
+        assertThat(sourceCard.getSpentToday()).isEqualByComparingTo(new BigDecimal("1000.00"));
+        assertThat(sourceCard.getSpentThisMonth()).isEqualByComparingTo(new BigDecimal("1000.00"));
+        assertThat(sourceCard.getBalance()).isEqualByComparingTo(new BigDecimal("9000.00"));
+        assertThat(cardRepository.findById(destinationCardId).orElseThrow().getBalance())
+                .isEqualByComparingTo(new BigDecimal("11000.00"));
+    }
+
+    @Test
+    void transferMoney_ConcurrentlyInOppositeDirections_ShouldNotDeadlock() throws Exception {
+        Long userId = createSpender("swapper");
+        Long firstCardId = createCard(userId);
+        Long secondCardId = createCard(userId);
+
+        List<Boolean> outcomes = runConcurrently("swapper", i -> i % 2 == 0
+                ? new TransferRequest(firstCardId, secondCardId, AMOUNT)
+                : new TransferRequest(secondCardId, firstCardId, AMOUNT));
+
+        assertThat(outcomes).containsOnly(true);
+        assertThat(retries.get()).isZero();
+        assertThat(cardRepository.findById(firstCardId).orElseThrow().getBalance())
+                .isEqualByComparingTo(new BigDecimal("10000.00"));
+        assertThat(cardRepository.findById(secondCardId).orElseThrow().getBalance())
+                .isEqualByComparingTo(new BigDecimal("10000.00"));
+    }
+
+    private Long createSpender(String username) {
+        if (roleRepository.findByName(Role.RoleName.USER).isEmpty()) {
+            Role userRole = new Role();
+            userRole.setName(Role.RoleName.USER);
+            roleRepository.save(userRole);
+        }
+        CreateUserRequest createUserRequest = new CreateUserRequest();
+        createUserRequest.setUsername(username);
+        createUserRequest.setPassword("password");
+        return userService.createUser(createUserRequest).getId();
+    }
+
+    private Long createCard(Long userId) {
+        CreateCardRequest createCardRequest = new CreateCardRequest();
+        createCardRequest.setUserId(userId);
+        createCardRequest.setInitialBalance(new BigDecimal("10000.00"));
+        return cardService.createCard(createCardRequest).getId();
+    }
+
+    private List<Boolean> runConcurrently(String username, IntFunction<TransferRequest> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            TransferRequest request = requests.apply(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return transferAs(username, request);
+            }));
+        }
+        start.countDown();
+
+        List<Boolean> outcomes = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            outcomes.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Whether the transfer went through or was denied by the spend limit. A lock timeout or
+     * serialization failure is retried a few times, as a client would, and counted; anything
+     * else fails the test.
+     */
+    private boolean transferAs(String username, TransferRequest request) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        try {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    cardService.transferMoney(request);
+                    return true;
+                } catch (CardException e) {
+                    assertThat(e.getReason()).isEqualTo(CardException.Reason.SPEND_LIMIT_EXCEEDED);
+                    return false;
+                } catch (ConcurrencyFailureException e) {
+                    if (attempt == MAX_RETRIES) {
+                        throw e;
+                    }
+                    retries.incrementAndGet();
+                }
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
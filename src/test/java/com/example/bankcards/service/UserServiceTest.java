@@ -1,6 +1,7 @@
 
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.CacheInvalidationPublisher;
 import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
@@ -8,11 +9,14 @@ import com.example.bankcards.exception.*;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.JwtTokenUtil;
+import com.example.bankcards.util.RequestCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -49,6 +53,12 @@ class UserServiceTest {
     @Mock
     private JwtTokenUtil jwtTokenUtil;
 
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry(), true);
+
     @InjectMocks
     private UserService userService;
 
@@ -122,6 +132,7 @@ class UserServiceTest {
         verify(passwordEncoder).encode("password");
         verify(roleRepository).findByName(Role.RoleName.USER);
         verify(userRepository).save(any(User.class));
+        verify(cacheInvalidationPublisher).userChanged(2L);
     }
 
     @Test
@@ -178,6 +189,7 @@ class UserServiceTest {
         userService.deleteUser(1L);
 
         verify(userRepository).deleteById(1L);
+        verify(cacheInvalidationPublisher).userChanged(1L);
     }
 
     @Test
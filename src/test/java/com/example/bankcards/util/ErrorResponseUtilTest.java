@@ -0,0 +1,57 @@
+package com.example.bankcards.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorResponseUtilTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void createTemplate_ShouldWriteTheSameBodyAsFullSerialization() throws Exception {
+        ErrorResponseUtil errorResponseUtil = new ErrorResponseUtil(objectMapper);
+        MockHttpServletResponse templated = new MockHttpServletResponse();
+        MockHttpServletResponse serialized = new MockHttpServletResponse();
+
+        errorResponseUtil.createTemplate(HttpStatus.UNAUTHORIZED, "Invalid JWT token").write(templated);
+        errorResponseUtil.setErrorResponse(serialized, HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+
+        JsonNode templatedBody = objectMapper.readTree(templated.getContentAsByteArray());
+        JsonNode serializedBody = objectMapper.readTree(serialized.getContentAsByteArray());
+        assertThat(templated.getStatus()).isEqualTo(401);
+        assertThat(templated.getContentType()).isEqualTo(serialized.getContentType());
+        assertThat(templated.getContentLength()).isEqualTo(templated.getContentAsByteArray().length);
+        assertThat(templatedBody.get("timestamp").asText()).isNotEqualTo(Instant.EPOCH.toString());
+        assertThat(Instant.parse(templatedBody.get("timestamp").asText())).isNotNull();
+        ((ObjectNode) templatedBody).remove("timestamp");
+        ((ObjectNode) serializedBody).remove("timestamp");
+        assertThat(templatedBody).isEqualTo(serializedBody);
+    }
+
+    @Test
+    void createTemplate_ShouldFallBackWhenTimestampsAreWrittenAsNumbers() throws Exception {
+        ObjectMapper numericTimestamps = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ErrorResponseUtil(numericTimestamps).createTemplate(HttpStatus.UNAUTHORIZED, "JWT token has expired").write(response);
+
+        JsonNode body = numericTimestamps.readTree(response.getContentAsByteArray());
+        assertThat(body.get("message").asText()).isEqualTo("JWT token has expired");
+        assertThat(body.get("timestamp").isNumber()).isTrue();
+        assertThat(body.get("timestamp").asDouble()).isPositive();
+    }
+}
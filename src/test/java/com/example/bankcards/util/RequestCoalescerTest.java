@@ -0,0 +1,185 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.datasource.ReadYourWritesTracker;
+import com.example.bankcards.exception.CardException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_ConcurrentCallsForSameKey_ShouldShareOneLoad() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> coalescer.execute("cards", 1L, () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                await(releaseLoad);
+                return "card-1";
+            }));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> follower = executor.submit(() -> coalescer.execute("cards", 1L, () -> {
+                loads.incrementAndGet();
+                return "second load";
+            }));
+            // Give the follower time to join the in-flight load
+            while (meterRegistry.counter("requests.coalesced", "group", "cards").count() == 0) {
+                Thread.sleep(5);
+            }
+            releaseLoad.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("card-1");
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("card-1");
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ConcurrentCallsFromDifferentUsers_ShouldShareOneLoad() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> alice = executor.submit(() -> asUser("alice", () -> coalescer.execute("cards", 1L, () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                await(releaseLoad);
+                return "card-1";
+            })));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The load does not depend on the caller, so bob waits for alice's
+            Future<String> bob = executor.submit(() -> asUser("bob", () -> coalescer.execute("cards", 1L, () -> {
+                loads.incrementAndGet();
+                return "second load";
+            })));
+            while (meterRegistry.counter("requests.coalesced", "group", "cards").count() == 0) {
+                Thread.sleep(5);
+            }
+            releaseLoad.countDown();
+
+            assertThat(alice.get(5, TimeUnit.SECONDS)).isEqualTo("card-1");
+            assertThat(bob.get(5, TimeUnit.SECONDS)).isEqualTo("card-1");
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_AfterARecentWrite_ShouldNotJoinAnInFlightLoad() throws Exception {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true, 2000, tracker);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> before = executor.submit(() -> asUser("alice", () -> coalescer.execute("cards", 1L, () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                return "before the write";
+            })));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            tracker.recordWrite("alice");
+            Future<String> after = executor.submit(() -> asUser("alice", () -> coalescer.execute("cards", 1L, () -> "after the write")));
+            assertThat(after.get(5, TimeUnit.SECONDS)).isEqualTo("after the write");
+
+            releaseLoad.countDown();
+            assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before the write");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WhenTheLoadIsStuck_ShouldStopWaitingAndLoadDirectly() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true, 50, (ReadYourWritesTracker) null);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> stuck = executor.submit(() -> coalescer.execute("cards", 1L, () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                return "late";
+            }));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> follower = executor.submit(() -> coalescer.execute("cards", 1L, () -> "direct"));
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("direct");
+            assertThat(meterRegistry.counter("requests.coalescing.timeouts", "group", "cards").count()).isEqualTo(1.0);
+
+            releaseLoad.countDown();
+            assertThat(stuck.get(5, TimeUnit.SECONDS)).isEqualTo("late");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_AfterLoadFinished_ShouldLoadAgain() {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true);
+
+        coalescer.execute("cards", 1L, () -> "first");
+        String second = coalescer.execute("cards", 1L, () -> "second");
+
+        assertThat(second).isEqualTo("second");
+        assertThat(meterRegistry.counter("requests.coalescing.loads", "group", "cards").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void execute_LoaderFails_ShouldRethrowOriginalException() {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true);
+
+        assertThrows(CardException.class, () -> coalescer.execute("cards", 1L, () -> {
+            throw new CardException("Card not found with ID: 1");
+        }));
+    }
+
+    private static <V> V asUser(String username, Callable<V> call) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        try {
+            return call.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}